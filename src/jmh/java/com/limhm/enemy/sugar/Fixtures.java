@@ -0,0 +1,54 @@
+package com.limhm.enemy.sugar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * src/jmh/resources/fixtures에 저장한 카페 응답을 읽는다.
+ */
+public final class Fixtures {
+
+    /**
+     * dataBuffers()가 응답을 나누는 크기. 네트워크에서 받는 DataBuffer 크기와 비슷하게 맞춘다.
+     */
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private Fixtures() {
+    }
+
+    public static String read(String name) {
+        return new String(readBytes(name), StandardCharsets.UTF_8);
+    }
+
+    public static byte[] readBytes(String name) {
+        try (InputStream inputStream = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("fixture가 없습니다: " + name);
+            }
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * wrap(): 배열을 복사하지 않고 DataBuffer로 감싸므로, 측정값에는 파싱 비용만 포함된다.
+     */
+    public static Flux<DataBuffer> dataBuffers(byte[] response) {
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < response.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, response.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                ByteBuffer.wrap(response, offset, length).slice()));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
@@ -0,0 +1,119 @@
+package com.limhm.enemy.sugar.common;
+
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 행 개수에 따른 엑셀 생성 시간과 파일 크기를 측정한다. 행은 sheets개 시트(카페)에 나눠 담는다.
+ * <ul>
+ *     <li>generateExcel: XSSFWorkbook으로 모든 행을 메모리에 만든 뒤 byte[]로 반환</li>
+ *     <li>writeExcel: SXSSFWorkbook으로 행을 임시 파일로 내보내며 OutputStream에 기록</li>
+ *     <li>writeExcelParallel: writeExcel과 같지만 시트마다 행을 채우는 작업을 동시에 실행. 코어가 여러 개일 때 시트 수만큼 빨라진다.</li>
+ * </ul>
+ * 실행: ./gradlew jmh -PjmhIncludes=ExcelExporterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ExcelExporterBenchmark {
+
+    private static final String[] HEADERS = {"이름", "칼로리", "포화지방", "당류", "나트륨", "단백질", "카페인"};
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    @Param({"1", "6"})
+    private int sheets;
+
+    private ExcelExporter excelExporter;
+    private Map<String, List<CafeDrink>> sheetData;
+
+    /**
+     * EVENTS: 측정값을 시간으로 나누지 않고 그대로 출력한다. 마지막으로 생성한 엑셀의 크기(byte)를 기록한다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public long outputBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        excelExporter = new ExcelExporter(new SimpleMeterRegistry(), 100, 4);
+        sheetData = new LinkedHashMap<>();
+        for (int sheet = 0; sheet < sheets; sheet++) {
+            Company cafe = new Cafe("벤치마크 " + sheet);
+            List<CafeDrink> items = new ArrayList<>(rows / sheets);
+            for (int i = sheet; i < rows; i += sheets) {
+                items.add(new CafeDrink(cafe, "음료 " + i, i % 500, i % 60, 3.5, 1.2, i % 300, 75));
+            }
+            sheetData.put(cafe.getKorName(), items);
+        }
+    }
+
+    @Benchmark
+    public byte[] generateExcel(OutputSize outputSize) {
+        byte[] excel = excelExporter.generateExcel(sheetData, HEADERS);
+        outputSize.outputBytes = excel.length;
+        return excel;
+    }
+
+    @Benchmark
+    public long writeExcel(OutputSize outputSize) {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        excelExporter.writeExcel(sheetData, HEADERS, outputStream);
+        outputSize.outputBytes = outputStream.count;
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long writeExcelParallel(OutputSize outputSize) {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        excelExporter.writeExcelParallel(sheetData, HEADERS, outputStream).block();
+        outputSize.outputBytes = outputStream.count;
+        return outputStream.count;
+    }
+
+    /**
+     * 기록한 내용은 버리고 크기만 센다. 측정값에 디스크나 메모리 복사 비용이 섞이지 않는다.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
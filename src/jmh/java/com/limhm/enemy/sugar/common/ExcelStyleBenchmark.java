@@ -0,0 +1,110 @@
+package com.limhm.enemy.sugar.common;
+
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.strategy.ExcelExportable;
+import com.limhm.enemy.sugar.strategy.ExcelStyleRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 행마다 스타일을 생성하던 기존 방식(perRow)과 ExcelStyleRegistry를 공유하는 방식(shared)의 엑셀 생성 시간과 파일 크기를 비교한다.
+ * <p>
+ * 실행: ./gradlew jmh -PjmhIncludes=ExcelStyleBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelStyleBenchmark {
+
+    private static final String[] HEADERS = {"이름", "칼로리", "포화지방", "당류", "나트륨", "단백질", "카페인"};
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"shared", "perRow"})
+    private String styleMode;
+
+    private ExcelExporter excelExporter;
+    private Map<String, List<ExcelExportable>> sheetData;
+
+    /**
+     * EVENTS: 측정값을 시간으로 나누지 않고 그대로 출력한다. 마지막으로 생성한 엑셀의 크기(byte)를 기록한다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public long outputBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        excelExporter = new ExcelExporter(new SimpleMeterRegistry(), 100, 4);
+        Company cafe = new Cafe("벤치마크");
+        List<ExcelExportable> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            CafeDrink drink = new CafeDrink(cafe, "음료 " + i, String.valueOf(i % 500),
+                String.valueOf(i % 60), "3.5", "1.2", String.valueOf(i % 300), "75");
+            items.add("perRow".equals(styleMode) ? new PerRowStyleDrink(drink) : drink);
+        }
+        sheetData = Map.of("벤치마크", items);
+    }
+
+    @Benchmark
+    public byte[] generateExcel(OutputSize outputSize) {
+        byte[] excel = excelExporter.generateExcel(sheetData, HEADERS);
+        outputSize.outputBytes = excel.length;
+        return excel;
+    }
+
+    /**
+     * ExcelStyleRegistry 도입 전 CafeDrink.writeRow와 같이 행마다 createCellStyle()과 createDataFormat()을 호출한다.
+     */
+    private static class PerRowStyleDrink implements ExcelExportable {
+
+        private final CafeDrink drink;
+
+        PerRowStyleDrink(CafeDrink drink) {
+            this.drink = drink;
+        }
+
+        @Override
+        public void writeRow(Row row, ExcelStyleRegistry styles) {
+            Workbook workbook = row.getSheet().getWorkbook();
+            CellStyle numericStyle = workbook.createCellStyle();
+            numericStyle.setDataFormat(
+                workbook.getCreationHelper().createDataFormat().getFormat("0.0"));
+            createCell(row, 0, drink.getName());
+            createCellByStyle(row, 1, drink.getCalories(), numericStyle);
+            createCellByStyle(row, 2, drink.getSaturatedFat(), numericStyle);
+            createCellByStyle(row, 3, drink.getSugar(), numericStyle);
+            createCellByStyle(row, 4, drink.getSodium(), numericStyle);
+            createCellByStyle(row, 5, drink.getProtein(), numericStyle);
+            createCellByStyle(row, 6, drink.getCaffeine(), numericStyle);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.limhm.enemy.sugar.domain;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CafeDrink 생성 비용을 비교한다.
+ * <ul>
+ *     <li>fromStrings: 영양 성분 문자열을 생성자에서 Optional과 Double.parseDouble로 변환</li>
+ *     <li>fromDoubles: 파서가 이미 변환한 double 값으로 생성</li>
+ * </ul>
+ * 입력값이 상수이면 JIT가 계산을 미리 접어 버리므로, final이 아닌 @State 필드에 둔다.
+ * <p>
+ * 실행: ./gradlew jmh -PjmhIncludes=CafeDrinkBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CafeDrinkBenchmark {
+
+    private Company cafe = new Cafe("벤치마크");
+    private String name = "카페 라떼";
+    private String calories = "180";
+    private String sugar = "17";
+    private String protein = "10";
+    private String saturatedFat = "5.5";
+    private String sodium = "115";
+    private String caffeine = "150";
+    private double caloriesValue = 180;
+    private double sugarValue = 17;
+    private double proteinValue = 10;
+    private double saturatedFatValue = 5.5;
+    private double sodiumValue = 115;
+    private double caffeineValue = 150;
+
+    @Benchmark
+    public CafeDrink fromStrings() {
+        return new CafeDrink(cafe, name, calories, sugar, protein, saturatedFat, sodium,
+            caffeine);
+    }
+
+    @Benchmark
+    public CafeDrink fromDoubles() {
+        return new CafeDrink(cafe, name, caloriesValue, sugarValue, proteinValue,
+            saturatedFatValue, sodiumValue, caffeineValue);
+    }
+}
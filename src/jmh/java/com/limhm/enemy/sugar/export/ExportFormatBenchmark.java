@@ -0,0 +1,103 @@
+package com.limhm.enemy.sugar.export;
+
+import com.limhm.enemy.sugar.common.ExcelExporter;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 형식(xlsx, csv, arrow)마다 같은 메뉴를 기록하는 시간과 파일 크기를 비교한다. 행은 6개 시트(카페)에 나눠 담는다.
+ * <p>
+ * 실행: ./gradlew jmh -PjmhIncludes=ExportFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ExportFormatBenchmark {
+
+    private static final int SHEETS = 6;
+
+    @Param({"xlsx", "csv", "arrow"})
+    private String format;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private ExportFormat exportFormat;
+    private Map<String, List<CafeDrink>> sheetData;
+
+    /**
+     * EVENTS: 측정값을 시간으로 나누지 않고 그대로 출력한다. 마지막으로 기록한 파일의 크기(byte)를 기록한다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public long outputBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExcelExporter excelExporter = new ExcelExporter(new SimpleMeterRegistry(), 100, 4);
+        exportFormat = new ExportFormats(List.of(new XlsxExportFormat(excelExporter),
+            new CsvExportFormat(), new ArrowExportFormat())).find(format);
+        sheetData = new LinkedHashMap<>();
+        for (int sheet = 0; sheet < SHEETS; sheet++) {
+            Company cafe = new Cafe("벤치마크 " + sheet);
+            List<CafeDrink> items = new ArrayList<>(rows / SHEETS);
+            for (int i = sheet; i < rows; i += SHEETS) {
+                items.add(new CafeDrink(cafe, "음료 " + i, i % 500, i % 60, 3.5, 1.2, i % 300, 75));
+            }
+            sheetData.put(cafe.getKorName(), items);
+        }
+    }
+
+    @Benchmark
+    public long write(OutputSize outputSize) {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        exportFormat.write(sheetData, outputStream).block();
+        outputSize.outputBytes = outputStream.count;
+        return outputStream.count;
+    }
+
+    /**
+     * 기록한 내용은 버리고 크기만 센다. 측정값에 디스크나 메모리 복사 비용이 섞이지 않는다.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.limhm.enemy.sugar.factory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.limhm.enemy.sugar.Fixtures;
+import com.limhm.enemy.sugar.client.ConditionalFetcher;
+import com.limhm.enemy.sugar.client.FetchMetrics;
+import com.limhm.enemy.sugar.client.FetchProperties;
+import com.limhm.enemy.sugar.client.FetchScheduler;
+import com.limhm.enemy.sugar.client.Paginator;
+import com.limhm.enemy.sugar.client.ResilienceFilter;
+import com.limhm.enemy.sugar.client.SingleFlightFilter;
+import com.limhm.enemy.sugar.config.WebClientProperties;
+import com.limhm.enemy.sugar.config.WebClientProvider;
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.parser.HtmlItemParser;
+import com.limhm.enemy.sugar.parser.JsonResponseParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * 저장한 응답 하나를 팩토리의 parse 메서드로 Beverage 목록까지 변환하는 처리량을 측정한다.
+ * <p>
+ * 응답은 네트워크에서 받는 것처럼 8KB 단위의 DataBuffer로 나누어 전달한다. HTML 응답은 htmlStreaming으로 StreamParser와 전체
+ * Document 파싱을 비교한다. 스타벅스는 JSON 응답이므로 htmlStreaming과 상관없다.
+ * <p>
+ * 실행: ./gradlew jmh -PjmhIncludes=CafeParseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CafeParseBenchmark {
+
+    @Param({"starbucks", "mega", "ediya", "compose", "paik"})
+    private String cafe;
+
+    @Param({"true", "false"})
+    private boolean htmlStreaming;
+
+    private WebClientProvider webClientProvider;
+    private Supplier<Flux<Beverage>> parse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FetchProperties fetchProperties = new FetchProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        webClientProvider = new WebClientProvider(new FetchScheduler(fetchProperties),
+            new ResilienceFilter(fetchProperties), new FetchMetrics(meterRegistry),
+            new SingleFlightFilter(meterRegistry), new WebClientProperties());
+        HtmlItemParser htmlItemParser = new HtmlItemParser(htmlStreaming, 16);
+        ConditionalFetcher conditionalFetcher = new ConditionalFetcher(meterRegistry);
+        Paginator paginator = new Paginator(fetchProperties);
+        switch (cafe) {
+            case "starbucks" -> {
+                CafeStarbucksFactory factory = new CafeStarbucksFactory(webClientProvider,
+                    new JsonResponseParser(new ObjectMapper()), conditionalFetcher);
+                byte[] response = Fixtures.readBytes("starbucks.json");
+                parse = () -> factory.parse(Fixtures.dataBuffers(response));
+            }
+            case "mega" -> {
+                CafeMegaCoffeeFactory factory = new CafeMegaCoffeeFactory(webClientProvider,
+                    htmlItemParser, conditionalFetcher, paginator);
+                byte[] response = Fixtures.readBytes("mega.html");
+                parse = () -> factory.parse(Fixtures.dataBuffers(response));
+            }
+            case "ediya" -> {
+                CafeEdiyaFactory factory = new CafeEdiyaFactory(webClientProvider, htmlItemParser,
+                    conditionalFetcher, paginator);
+                byte[] response = Fixtures.readBytes("ediya.html");
+                parse = () -> factory.parse(Fixtures.dataBuffers(response));
+            }
+            case "compose" -> {
+                CafeComposeCoffeeFactory factory = new CafeComposeCoffeeFactory(webClientProvider,
+                    htmlItemParser, conditionalFetcher);
+                byte[] response = Fixtures.readBytes("compose.html");
+                parse = () -> factory.parse(Fixtures.dataBuffers(response));
+            }
+            case "paik" -> {
+                CafePaikDaBangFactory factory = new CafePaikDaBangFactory(webClientProvider,
+                    htmlItemParser, conditionalFetcher);
+                byte[] response = Fixtures.readBytes("paik.html");
+                parse = () -> factory.parse(Fixtures.dataBuffers(response));
+            }
+            default -> throw new IllegalArgumentException(cafe);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        webClientProvider.dispose();
+    }
+
+    @Benchmark
+    public List<Beverage> parse() {
+        return parse.get().collectList().block();
+    }
+}
@@ -0,0 +1,159 @@
+package com.limhm.enemy.sugar.factory;
+
+import com.limhm.enemy.sugar.Fixtures;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.parser.NutritionExtractor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 저장한 HTML 페이지 하나의 모든 메뉴 요소에서 영양 성분을 추출하는 시간을 비교한다.
+ * <ul>
+ *     <li>legacySelectors: 영양 성분마다 item.select(":contains(...)")를 호출하던 기존 parse 메서드</li>
+ *     <li>precompiledExtractor: 팩토리의 NutritionExtractor로 메뉴 요소를 한 번만 순회</li>
+ * </ul>
+ * 실행: ./gradlew jmh -PjmhIncludes=NutritionExtractorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NutritionExtractorBenchmark {
+
+    private static final Company CAFE = new Cafe("벤치마크");
+
+    @Param({"mega", "ediya", "compose", "paik"})
+    private String cafe;
+
+    private Elements items;
+    private NutritionExtractor extractor;
+    private Function<Element, CafeDrink> legacy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (cafe) {
+            case "mega" -> {
+                items = Jsoup.parse(Fixtures.read("mega.html")).select("#menu_list > li");
+                extractor = CafeMegaCoffeeFactory.EXTRACTOR;
+                legacy = NutritionExtractorBenchmark::legacyMega;
+            }
+            case "ediya" -> {
+                items = Jsoup.parse(Fixtures.read("ediya.html")).select("li");
+                extractor = CafeEdiyaFactory.EXTRACTOR;
+                legacy = NutritionExtractorBenchmark::legacyEdiya;
+            }
+            case "compose" -> {
+                items = Jsoup.parse(Fixtures.read("compose.html")).select(".itemBox");
+                extractor = CafeComposeCoffeeFactory.EXTRACTOR;
+                legacy = NutritionExtractorBenchmark::legacyCompose;
+            }
+            case "paik" -> {
+                items = Jsoup.parse(Fixtures.read("paik.html")).select(".menu_list > ul > li");
+                extractor = CafePaikDaBangFactory.EXTRACTOR;
+                legacy = NutritionExtractorBenchmark::legacyPaik;
+            }
+            default -> throw new IllegalArgumentException(cafe);
+        }
+    }
+
+    @Benchmark
+    public void legacySelectors(Blackhole blackhole) {
+        for (Element item : items) {
+            blackhole.consume(legacy.apply(item));
+        }
+    }
+
+    @Benchmark
+    public void precompiledExtractor(Blackhole blackhole) {
+        for (Element item : items) {
+            blackhole.consume(extractor.extract(item, CAFE));
+        }
+    }
+
+    private static String numeric(String text) {
+        String numeric = text.replaceAll("[^\\d.]+", "");
+        return numeric.isEmpty() ? "0" : numeric;
+    }
+
+    private static String composeNumeric(String text) {
+        String[] extractMl = text.split("/");
+        String[] parts = extractMl[0].split(":");
+        return numeric(parts[parts.length - 1]);
+    }
+
+    private static CafeDrink legacyMega(Element item) {
+        String name = item.select(".cont_text_title b").first().text();
+        String calories = numeric(item.select(".cont_text_inner:contains(1회 제공량)").text()
+            .replace("1회 제공량", ""));
+        String saturatedFat = numeric(item.select(".cont_list li:contains(포화지방)").text());
+        String sugar = numeric(item.select(".cont_list li:contains(당류)").text());
+        String sodium = numeric(item.select(".cont_list li:contains(나트륨)").text());
+        String protein = numeric(item.select(".cont_list li:contains(단백질)").text());
+        String caffeine = numeric(item.select(".cont_list li:contains(카페인)").text());
+        return new CafeDrink(CAFE, name, calories, sugar, protein, saturatedFat, sodium,
+            caffeine);
+    }
+
+    private static CafeDrink legacyEdiya(Element item) {
+        String name = item.select("h2").first().ownText().trim();
+        String calories = numeric(item.select("dl dt:contains(칼로리) + dd").text());
+        String saturatedFat = numeric(item.select("dl dt:containsOwn(포화지방) + dd").text());
+        String sugar = numeric(item.select("dl dt:containsOwn(당류) + dd").text());
+        String sodium = numeric(item.select("dl dt:containsOwn(나트륨) + dd").text());
+        String protein = numeric(item.select("dl dt:containsOwn(단백질) + dd").text());
+        String caffeine = numeric(item.select("dl dt:containsOwn(카페인) + dd").text());
+        return new CafeDrink(CAFE, name, calories, sugar, protein, saturatedFat, sodium,
+            caffeine);
+    }
+
+    private static CafeDrink legacyCompose(Element item) {
+        String name = item.select(".title").text();
+        String calories = composeNumeric(item.select(".info li.extra:contains(열량)").text());
+        String sugar = composeNumeric(item.select(".info li.extra:contains(당류)").text());
+        String protein = composeNumeric(item.select(".info li.extra:contains(단백질)").text());
+        String saturatedFat = composeNumeric(
+            item.select(".info li.extra:contains(포화지방)").text());
+        String sodium = composeNumeric(item.select(".info li.extra:contains(나트륨)").text());
+        String caffeine = composeNumeric(item.select(".info li.extra:contains(카페인)").text());
+        return new CafeDrink(CAFE, name, calories, sugar, protein, saturatedFat, sodium,
+            caffeine);
+    }
+
+    private static CafeDrink legacyPaik(Element item) {
+        String name = item.select(".menu_tit").text();
+        String calories = item.select(".ingredient_table li:contains(칼로리) div:nth-child(2)")
+            .text();
+        String saturatedFat = item.select(
+            ".ingredient_table li:contains(포화지방) div:nth-child(2)").text().replace("-", "0");
+        String sugar = item.select(".ingredient_table li:contains(당류) div:nth-child(2)").text()
+            .replace("-", "0");
+        String sodium = item.select(".ingredient_table li:contains(나트륨) div:nth-child(2)")
+            .text().replace("-", "0");
+        String protein = item.select(".ingredient_table li:contains(단백질) div:nth-child(2)")
+            .text().replace("-", "0");
+        String caffeine = item.select(".ingredient_table li:contains(카페인) div:nth-child(2)")
+            .text().replace("-", "0");
+        return new CafeDrink(CAFE, name, calories, sugar, protein, saturatedFat, sodium,
+            caffeine);
+    }
+}
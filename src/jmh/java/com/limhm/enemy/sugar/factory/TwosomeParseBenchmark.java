@@ -0,0 +1,96 @@
+package com.limhm.enemy.sugar.factory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.limhm.enemy.sugar.Fixtures;
+import com.limhm.enemy.sugar.client.FetchMetrics;
+import com.limhm.enemy.sugar.client.FetchProperties;
+import com.limhm.enemy.sugar.client.FetchScheduler;
+import com.limhm.enemy.sugar.client.Paginator;
+import com.limhm.enemy.sugar.client.ResilienceFilter;
+import com.limhm.enemy.sugar.client.SingleFlightFilter;
+import com.limhm.enemy.sugar.config.WebClientProperties;
+import com.limhm.enemy.sugar.config.WebClientProvider;
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.CafeTwosomeRequestBody;
+import com.limhm.enemy.sugar.parser.JsonResponseParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 투썸플레이스는 메뉴 하나를 메뉴 목록, 온도, 사이즈, 영양 정보 네 단계의 응답으로 만든다. 단계마다 저장한 응답 하나를 파싱하는 처리량을
+ * 측정한다.
+ * <p>
+ * 실행: ./gradlew jmh -PjmhIncludes=TwosomeParseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TwosomeParseBenchmark {
+
+    private WebClientProvider webClientProvider;
+    private CafeTwosomePlaceCoffeeFactory factory;
+    private CafeTwosomeRequestBody request;
+    private byte[] menuList;
+    private String temperature;
+    private byte[] size;
+    private byte[] info;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FetchProperties fetchProperties = new FetchProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        webClientProvider = new WebClientProvider(new FetchScheduler(fetchProperties),
+            new ResilienceFilter(fetchProperties), new FetchMetrics(meterRegistry),
+            new SingleFlightFilter(meterRegistry), new WebClientProperties());
+        factory = new CafeTwosomePlaceCoffeeFactory(webClientProvider, fetchProperties,
+            new JsonResponseParser(new ObjectMapper()), new Paginator(fetchProperties),
+            meterRegistry);
+        request = CafeTwosomeRequestBody.builder().menuCode("10100001").menuName("(HOT) 아메리카노")
+            .temperatureOption("H").sizeOption("R").build();
+        menuList = Fixtures.readBytes("twosome-menu-list.json");
+        temperature = Fixtures.read("twosome-temperature.html");
+        size = Fixtures.readBytes("twosome-size.json");
+        info = Fixtures.readBytes("twosome-info.json");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        webClientProvider.dispose();
+    }
+
+    @Benchmark
+    public List<CafeTwosomeRequestBody> parseMenuNameAndCode() {
+        return factory.parseMenuNameAndCode(Fixtures.dataBuffers(menuList)).collectList().block();
+    }
+
+    @Benchmark
+    public List<CafeTwosomeRequestBody> parseTemperatureOptions() {
+        return factory.parseTemperatureOptions(temperature, request).collectList().block();
+    }
+
+    @Benchmark
+    public List<CafeTwosomeRequestBody> parseSizeOptions() {
+        return factory.parseSizeOptions(Fixtures.dataBuffers(size), request).collectList().block();
+    }
+
+    @Benchmark
+    public List<Beverage> parseInfo() {
+        return factory.parseInfo(Fixtures.dataBuffers(info), request).collectList().block();
+    }
+}
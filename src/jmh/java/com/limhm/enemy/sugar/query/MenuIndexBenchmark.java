@@ -0,0 +1,92 @@
+package com.limhm.enemy.sugar.query;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * 당류 10g 이하, 카페인 50mg 이상인 메뉴를 칼로리 순으로 50개 찾는 시간을 비교한다.
+ * <ul>
+ *     <li>streamSort: Beverage 리스트를 stream()으로 거르고 정렬</li>
+ *     <li>columnarSelect: MenuIndex.select()로 미리 정렬한 순서를 따라 double[]만 읽으며 버퍼에 행 번호를 채움</li>
+ * </ul>
+ * columnarSelect는 -prof gc의 gc.alloc.rate.norm이 0에 가까워야 한다.
+ * <p>
+ * 실행: ./gradlew jmh -PjmhIncludes=MenuIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuIndexBenchmark {
+
+    private static final int LIMIT = 50;
+
+    @Param({"1000", "50000"})
+    private int rows;
+
+    private List<Beverage> beverages;
+    private MenuIndex index;
+    private MenuQuery query;
+    private int[] buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Company[] cafes = {new Cafe("스타벅스"), new Cafe("메가커피"), new Cafe("컴포즈커피"),
+            new Cafe("빽다방"), new Cafe("이디야"), new Cafe("투썸플레이스")};
+        beverages = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            beverages.add(new CafeDrink(cafes[i % cafes.length], "메뉴 " + i,
+                random.nextInt(600), random.nextInt(60), random.nextInt(20),
+                random.nextInt(15), random.nextInt(400), random.nextInt(300)));
+        }
+        index = new MenuIndex(beverages);
+
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("maxSugar", "10");
+        params.add("minCaffeine", "50");
+        params.add("sort", "calories");
+        params.add("limit", String.valueOf(LIMIT));
+        query = MenuQuery.from(params);
+        buffer = new int[LIMIT];
+    }
+
+    @Benchmark
+    public List<Beverage> streamSort() {
+        return beverages.stream()
+            .filter(beverage -> beverage.getSugar() <= 10 && beverage.getCaffeine() >= 50)
+            .sorted(Comparator.comparingDouble(Beverage::getCalories)
+                .thenComparing(beverage -> beverage.getCompany().getKorName())
+                .thenComparing(Beverage::getName))
+            .limit(LIMIT)
+            .toList();
+    }
+
+    @Benchmark
+    public int columnarSelect() {
+        return index.select(query, buffer);
+    }
+}
@@ -0,0 +1,90 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.export.ExportFormat;
+import java.nio.file.Path;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 임시 파일로 미리 작성한 메뉴 파일. version은 메뉴 스냅샷의 해시와 형식 이름이며 ETag로 사용한다.
+ * <p>
+ * gzipPath는 gzip으로 미리 압축한 파일이다. 압축하지 않는 형식이거나 압축해도 작아지지 않으면 null이다.
+ * <p>
+ * 응답 중인 파일이 삭제되지 않도록 참조 수(leases)를 센다. 응답하기 전에 acquire()로 참조를 얻고, 응답이 끝나면 release()로
+ * 돌려준다. 캐시에서 밀려난(retire) 파일은 마지막 참조가 돌아올 때 삭제된다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ExportArtifact {
+
+    private final String version;
+    private final ExportFormat format;
+    private final Path path;
+    private final long contentLength;
+    private final Path gzipPath;
+    private final long gzipContentLength;
+
+    @Getter(AccessLevel.NONE)
+    private int leases;
+    @Getter(AccessLevel.NONE)
+    private boolean retired;
+    @Getter(AccessLevel.NONE)
+    private Runnable deleter;
+
+    public boolean hasGzip() {
+        return gzipPath != null;
+    }
+
+    /**
+     * 이미 밀려난 파일이면 false를 반환한다. 파일이 삭제되었거나 곧 삭제되므로 응답에 사용할 수 없다.
+     */
+    public synchronized boolean acquire() {
+        if (retired) {
+            return false;
+        }
+        leases++;
+        return true;
+    }
+
+    /**
+     * 파일 삭제는 synchronized 밖에서 한 번만 실행한다.
+     */
+    public void release() {
+        Runnable delete;
+        synchronized (this) {
+            leases--;
+            delete = takeDeleterIfUnused();
+        }
+        if (delete != null) {
+            delete.run();
+        }
+    }
+
+    /**
+     * 참조가 없으면 바로 삭제하고, 있으면 마지막 release()에서 삭제한다.
+     */
+    void retire(Runnable deleter) {
+        Runnable delete;
+        synchronized (this) {
+            if (retired) {
+                return;
+            }
+            this.retired = true;
+            this.deleter = deleter;
+            delete = takeDeleterIfUnused();
+        }
+        if (delete != null) {
+            delete.run();
+        }
+    }
+
+    private Runnable takeDeleterIfUnused() {
+        if (leases > 0 || deleter == null) {
+            return null;
+        }
+        Runnable delete = deleter;
+        deleter = null;
+        return delete;
+    }
+}
@@ -0,0 +1,279 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.export.ExportFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 메뉴 스냅샷마다 형식별로 파일을 한 번만 작성해 임시 파일로 보관한다.
+ * <p>
+ * 버전은 시트 이름과 음료의 모든 필드를 SHA-256으로 해싱한 값이다. 메뉴가 바뀌지 않았으면 같은 파일을 그대로 응답하고, 최근 maxVersions개의
+ * 버전만 남기고 오래된 버전은 모든 형식의 파일을 삭제한다. 응답 중인 파일은 응답이 끝난 후에 삭제한다(ExportArtifact 참고).
+ * <p>
+ * 파일 이름에는 작성할 때마다 늘어나는 번호를 붙인다. 밀려난 버전을 다시 요청해 새로 작성해도, 아직 응답 중인 이전 파일을
+ * 덮어쓰거나 이전 파일과 함께 삭제하지 않는다.
+ * <p>
+ * 압축할 수 있는 형식(ExportFormat.isCompressible())은 gzip으로 압축한 파일(버전.gz)도 함께 작성한다. 요청마다 압축하지 않고 스냅샷마다
+ * 한 번만 압축하므로, 가장 높은 압축 수준을 사용한다.
+ */
+@Slf4j
+@Component
+public class ExportArtifactCache {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxVersions;
+    private final Path directory;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Map<String, Rendering>> artifacts = new LinkedHashMap<>();
+
+    public ExportArtifactCache(MeterRegistry meterRegistry,
+        @Value("${export.artifact.max-versions:3}") int maxVersions) throws IOException {
+        this.meterRegistry = meterRegistry;
+        this.maxVersions = maxVersions;
+        this.directory = Files.createTempDirectory("menu-artifact");
+    }
+
+    /**
+     * cache(): 같은 버전과 형식을 동시에 요청해도 파일은 한 번만 작성된다. 작성에 실패하면 다음 요청에서 다시 작성하도록 제거한다.
+     * <p>
+     * 반환한 파일은 참조(acquire())를 얻은 상태이므로, 호출한 쪽은 응답이 끝나면 release()를 호출해야 한다. 참조를 얻기 전에 파일이
+     * 밀려났으면 다시 조회한다.
+     * <p>
+     * export.artifact.cache.requests: 작성해 둔 파일로 응답한 요청(hit)과 새로 작성한 요청(miss)의 수
+     */
+    public Mono<ExportArtifact> get(Map<String, List<Beverage>> sheetData, ExportFormat format) {
+        String hash = hash(sheetData);
+        synchronized (artifacts) {
+            Map<String, Rendering> formats = artifacts.get(hash);
+            if (formats == null) {
+                formats = new ConcurrentHashMap<>();
+                artifacts.put(hash, formats);
+                evictOldVersions();
+            }
+            Rendering rendering = formats.get(format.getName());
+            meterRegistry.counter("export.artifact.cache.requests", "format", format.getName(),
+                "result", rendering == null ? "miss" : "hit").increment();
+            if (rendering == null) {
+                String version = hash + "." + format.getName();
+                Rendering created = new Rendering();
+                created.artifact = render(version, sheetData, format)
+                    .doOnNext(created::complete)
+                    .doOnError(e -> remove(hash, format.getName()))
+                    .cache();
+                formats.put(format.getName(), created);
+                rendering = created;
+            }
+            return rendering.artifact.flatMap(
+                rendered -> rendered.acquire() ? Mono.just(rendered) : get(sheetData, format));
+        }
+    }
+
+    /**
+     * usingWhen(): 파일을 열고, 작성이 끝나면 닫는다. 닫을 때 남은 버퍼를 쓰다 실패하면 파일이 덜 써졌으므로 작성도 실패한다. 작성이
+     * 실패하거나 취소되면 닫기 실패는 무시한다. 실패하면 작성하던 파일을 삭제한다.
+     * <p>
+     * 형식마다 쓰는 단위가 달라 작은 단위로 쓰는 형식도 있으므로 BufferedOutputStream을 거쳐 쓴다.
+     * <p>
+     * export.artifact.size: 작성한 파일의 크기(byte). encoding 태그로 원본(identity)과 gzip 파일을 구분한다.
+     */
+    private Mono<ExportArtifact> render(String version, Map<String, List<Beverage>> sheetData,
+        ExportFormat format) {
+        Path path = directory.resolve(version + "." + sequence.incrementAndGet());
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> new BufferedOutputStream(Files.newOutputStream(path))),
+                outputStream -> format.write(sheetData, outputStream),
+                outputStream -> Mono.fromCallable(() -> {
+                    outputStream.close();
+                    return path;
+                }),
+                (outputStream, e) -> Mono.fromRunnable(() -> closeQuietly(outputStream)),
+                outputStream -> Mono.fromRunnable(() -> closeQuietly(outputStream)))
+            .then(Mono.fromCallable(() -> {
+                long contentLength = Files.size(path);
+                recordSize(format, "identity", contentLength);
+                Path gzipPath = format.isCompressible() ? gzip(path, contentLength) : null;
+                long gzipContentLength = gzipPath != null ? Files.size(gzipPath) : 0;
+                if (gzipPath != null) {
+                    recordSize(format, "gzip", gzipContentLength);
+                }
+                return new ExportArtifact(version, format, path, contentLength, gzipPath,
+                    gzipContentLength);
+            }))
+            .doOnError(e -> deleteFiles(path, gzipPath(path)))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 원본 파일을 압축해 버전.gz로 기록한다. 압축해도 작아지지 않으면 파일을 지우고 null을 반환한다.
+     * <p>
+     * GZIPOutputStream은 압축 수준을 받지 않으므로, 상속해서 def(Deflater)의 수준을 바꾼다.
+     */
+    private Path gzip(Path path, long contentLength) throws IOException {
+        Path gzipPath = gzipPath(path);
+        try (OutputStream outputStream = new GZIPOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(gzipPath)), 8192) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            Files.copy(path, outputStream);
+        }
+        if (Files.size(gzipPath) >= contentLength) {
+            Files.delete(gzipPath);
+            return null;
+        }
+        return gzipPath;
+    }
+
+    private static Path gzipPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".gz");
+    }
+
+    private void recordSize(ExportFormat format, String encoding, long size) {
+        meterRegistry.summary("export.artifact.size", "format", format.getName(),
+            "encoding", encoding).record(size);
+    }
+
+    private void closeQuietly(OutputStream outputStream) {
+        try {
+            outputStream.close();
+        } catch (IOException e) {
+            log.warn("임시 파일 닫기 실패", e);
+        }
+    }
+
+    /**
+     * 작성을 마친 파일만 바로 밀어낸다. 작성 중인 파일은 작성이 끝난 후에 밀려나고, 아직 아무도 구독하지 않은 작성은 파일이 없으므로
+     * 시작하지 않고 버린다. 작성에 실패한 파일은 render()에서 이미 삭제했다.
+     */
+    private void evictOldVersions() {
+        Iterator<Map.Entry<String, Map<String, Rendering>>> versions =
+            artifacts.entrySet().iterator();
+        while (artifacts.size() > maxVersions && versions.hasNext()) {
+            Map.Entry<String, Map<String, Rendering>> version = versions.next();
+            versions.remove();
+            version.getValue().values().forEach(Rendering::evict);
+        }
+    }
+
+    private void retire(ExportArtifact artifact) {
+        artifact.retire(() -> deleteFiles(artifact.getPath(), artifact.getGzipPath()));
+    }
+
+    private void remove(String hash, String format) {
+        synchronized (artifacts) {
+            Map<String, Rendering> formats = artifacts.get(hash);
+            if (formats != null) {
+                formats.remove(format);
+            }
+        }
+    }
+
+    /**
+     * 원본과 gzip 파일을 함께 삭제한다. gzipPath는 null일 수 있다.
+     */
+    private void deleteFiles(Path path, Path gzipPath) {
+        try {
+            Files.deleteIfExists(path);
+            if (gzipPath != null) {
+                Files.deleteIfExists(gzipPath);
+            }
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void clear() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * 시트 이름 순서대로 음료의 모든 필드를 해싱한다. 같은 메뉴라면 Map의 순서와 상관없이 같은 값이 나온다.
+     * <p>
+     * 열 이름은 형식마다 다르므로 해싱하지 않는다. 형식은 버전 뒤에 붙인다.
+     */
+    static String hash(Map<String, List<Beverage>> sheetData) {
+        MessageDigest digest = sha256();
+        ByteBuffer numbers = ByteBuffer.allocate(Double.BYTES * 6);
+        for (Map.Entry<String, List<Beverage>> sheet : new TreeMap<>(sheetData).entrySet()) {
+            update(digest, sheet.getKey());
+            for (Beverage beverage : sheet.getValue()) {
+                update(digest, beverage.getCompany().getKorName());
+                update(digest, beverage.getName());
+                numbers.clear();
+                numbers.putDouble(beverage.getCalories()).putDouble(beverage.getSugar())
+                    .putDouble(beverage.getProtein()).putDouble(beverage.getSaturatedFat())
+                    .putDouble(beverage.getSodium()).putDouble(beverage.getCaffeine());
+                digest.update(numbers.flip());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 문자열 사이에 구분자(0)를 넣어 "ab" + "c"와 "a" + "bc"가 같은 해시가 되지 않도록 한다.
+     */
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 한 버전, 한 형식의 작성. 작성을 마친 파일(rendered)을 기억해 두어, 밀려날 때 작성을 다시 구독하지 않고 파일을 삭제한다.
+     */
+    private class Rendering {
+
+        private Mono<ExportArtifact> artifact;
+        private ExportArtifact rendered;
+        private boolean evicted;
+
+        synchronized void complete(ExportArtifact completed) {
+            rendered = completed;
+            if (evicted) {
+                retire(completed);
+            }
+        }
+
+        synchronized void evict() {
+            evicted = true;
+            if (rendered != null) {
+                retire(rendered);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 카페 메뉴를 백그라운드에서 주기적으로 크롤링하는 설정
+ * <p>
+ * 키는 팩토리 클래스 이름이다. 예) cafe.menu.crawl.cafes[CafeTwosomePlaceCoffeeFactory].interval=3h
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cafe.menu.crawl")
+public class MenuCrawlProperties {
+
+    private boolean enabled = true;
+    private Schedule defaults = new Schedule();
+    private Map<String, Schedule> cafes = new HashMap<>();
+    private Duration retryInterval = Duration.ofMinutes(10);
+
+    public Schedule getSchedule(CafeFactory factory) {
+        return cafes.getOrDefault(factory.getClass().getSimpleName(), defaults);
+    }
+
+    /**
+     * interval: 마지막 스냅샷을 크롤링한 뒤 다시 크롤링하기까지의 시간. 요청이 만료된 스냅샷을 만나지 않도록
+     * cafe.menu.cache.ttl - cafe.menu.cache.refresh-ahead보다 짧게 설정한다.
+     * <p>
+     * jitter: 크롤링 시각에 더하는 0 ~ jitter 사이의 임의 시간. 여러 인스턴스나 카페의 크롤링이 같은 시각에 몰리지 않는다.
+     */
+    @Getter
+    @Setter
+    public static class Schedule {
+
+        private Duration interval = Duration.ofHours(5);
+        private Duration jitter = Duration.ofMinutes(5);
+    }
+}
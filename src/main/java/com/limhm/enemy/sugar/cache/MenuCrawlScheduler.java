@@ -0,0 +1,95 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.cache.MenuCrawlProperties.Schedule;
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+/**
+ * 요청과 상관없이 카페마다 정해진 주기로 메뉴를 크롤링한다.
+ * <p>
+ * 크롤링은 MenuSnapshotCache.refresh()를 거치므로, 요청이 시작한 크롤링과 겹치면 진행 중인 크롤링 하나를 함께 기다린다. 결과는
+ * 변경되지 않는 MenuSnapshot으로 교체되고, MenuSnapshotEvent로 인덱스와 엑셀 파일에 반영된다.
+ * <p>
+ * 요청은 대부분 만료되지 않은 스냅샷으로 바로 응답하므로, 업스트림을 호출하는 횟수는 요청 수가 아니라 이 주기로 정해진다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuCrawlScheduler {
+
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final List<CafeFactory> factories;
+    private final MenuCrawlProperties crawlProperties;
+    private final Disposable.Composite schedules = Disposables.composite();
+
+    /**
+     * ApplicationReadyEvent: 애플리케이션이 요청을 받을 준비를 마친 뒤 카페별 반복을 시작한다.
+     * <p>
+     * 첫 확인은 0 ~ jitter 사이의 임의 시간 뒤에 하므로, 재시작 직후 모든 카페를 동시에 크롤링하지 않는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!crawlProperties.isEnabled()) {
+            return;
+        }
+        for (CafeFactory factory : factories) {
+            Schedule schedule = crawlProperties.getSchedule(factory);
+            schedules.add(Mono.delay(jitter(schedule))
+                .thenMany(next(factory, schedule).repeat())
+                .subscribe());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        schedules.dispose();
+    }
+
+    /**
+     * 반복 한 번. 마지막 스냅샷이 interval보다 오래되었으면 크롤링하고, 아니면 interval이 지날 때까지(+ jitter) 기다린다.
+     * <p>
+     * 기다린 뒤에는 스냅샷을 다시 확인하므로, 그동안 요청이 크롤링했다면 다시 크롤링하지 않는다.
+     */
+    private Mono<Void> next(CafeFactory factory, Schedule schedule) {
+        return menuSnapshotCache.findSnapshot(factory)
+            .map(snapshot -> Duration.between(Instant.now(),
+                snapshot.getFetchedAt().plus(schedule.getInterval())))
+            .defaultIfEmpty(Duration.ZERO)
+            .flatMap(untilDue -> untilDue.isNegative() || untilDue.isZero()
+                ? crawl(factory)
+                : Mono.delay(untilDue.plus(jitter(schedule))).then());
+    }
+
+    /**
+     * 실패하면 스냅샷이 그대로이므로 바로 다시 크롤링하게 된다. retryInterval만큼 기다린 뒤 반복을 이어간다.
+     */
+    private Mono<Void> crawl(CafeFactory factory) {
+        String name = factory.getClass().getSimpleName();
+        return menuSnapshotCache.refresh(factory)
+            .doOnNext(snapshot -> log.info("{} 메뉴 {}개를 크롤링했다.", name,
+                snapshot.getBeverages().size()))
+            .then()
+            .onErrorResume(e -> {
+                log.warn("{} 메뉴 크롤링 실패, {} 뒤에 다시 시도한다.", name,
+                    crawlProperties.getRetryInterval(), e);
+                return Mono.delay(crawlProperties.getRetryInterval()).then();
+            });
+    }
+
+    private Duration jitter(Schedule schedule) {
+        long bound = schedule.getJitter().toMillis();
+        return Duration.ofMillis(bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0);
+    }
+}
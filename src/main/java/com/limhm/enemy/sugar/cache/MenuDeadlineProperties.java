@@ -0,0 +1,27 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 카페 메뉴를 기다릴 최대 시간
+ * <p>
+ * 키는 팩토리 클래스 이름이다. 예) cafe.menu.deadline.cafes[CafeTwosomePlaceCoffeeFactory]=30s
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cafe.menu.deadline")
+public class MenuDeadlineProperties {
+
+    private Duration defaults = Duration.ofSeconds(20);
+    private Map<String, Duration> cafes = new HashMap<>();
+
+    public Duration getDeadline(CafeFactory factory) {
+        return cafes.getOrDefault(factory.getClass().getSimpleName(), defaults);
+    }
+}
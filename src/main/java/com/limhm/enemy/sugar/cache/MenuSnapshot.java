@@ -0,0 +1,26 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * 한 카페를 크롤링한 결과. 생성 후 변경되지 않는다.
+ */
+@Getter
+public class MenuSnapshot {
+
+    private final List<Beverage> beverages;
+    private final Instant fetchedAt;
+
+    public MenuSnapshot(List<Beverage> beverages, Instant fetchedAt) {
+        this.beverages = List.copyOf(beverages);
+        this.fetchedAt = fetchedAt;
+    }
+
+    public boolean isOlderThan(Duration age, Instant now) {
+        return fetchedAt.plus(age).isBefore(now);
+    }
+}
@@ -0,0 +1,253 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import com.limhm.enemy.sugar.repository.BeverageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * CafeFactory.createBeverage()의 마지막 성공 결과를 카페별로 보관한다.
+ * <p>
+ * 메뉴는 하루에 한 번 이상 바뀌지 않으므로, 요청마다 크롤링하지 않고 스냅샷을 반환한다.
+ * <ul>
+ *     <li>ttl 이내: 스냅샷을 바로 반환한다. ttl - refreshAhead가 지났으면 백그라운드에서 갱신을 시작한다.</li>
+ *     <li>ttl 초과 또는 스냅샷 없음: 크롤링 결과를 기다린다. 크롤링에 실패하면 만료된 스냅샷이라도 반환한다.</li>
+ * </ul>
+ * 크롤링 결과는 BeverageRepository에도 저장한다. 카페를 처음 조회할 때는 저장소의 마지막 크롤링 결과를 스냅샷으로 불러오므로,
+ * 재시작 직후에도 카페 홈페이지를 기다리지 않고 응답한다.
+ */
+@Slf4j
+@Component
+public class MenuSnapshotCache {
+
+    private final BeverageRepository beverageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MenuDeadlineProperties deadlineProperties;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Duration refreshAhead;
+    private final Map<CafeFactory, Entry> entries = new ConcurrentHashMap<>();
+
+    public MenuSnapshotCache(BeverageRepository beverageRepository,
+        ApplicationEventPublisher eventPublisher,
+        MenuDeadlineProperties deadlineProperties,
+        MeterRegistry meterRegistry,
+        @Value("${cafe.menu.cache.ttl:6h}") Duration ttl,
+        @Value("${cafe.menu.cache.refresh-ahead:30m}") Duration refreshAhead) {
+        this.beverageRepository = beverageRepository;
+        this.eventPublisher = eventPublisher;
+        this.deadlineProperties = deadlineProperties;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * then(): restore()가 끝난 뒤 스냅샷을 확인한다. 저장소는 카페마다 처음 한 번만 조회한다.
+     */
+    public Mono<List<Beverage>> getMenu(CafeFactory factory) {
+        Entry entry = entries.computeIfAbsent(factory, Entry::new);
+        return entry.restore().then(Mono.defer(() -> serve(entry)));
+    }
+
+    /**
+     * timeout(): 카페별 deadline 안에 메뉴를 가져오지 못하면 기다리지 않고 마지막 스냅샷을 반환한다. 만료된 스냅샷이라도 반환하며,
+     * 크롤링은 취소되지 않고 백그라운드에서 계속되어 다음 요청부터 반영된다.
+     * <p>
+     * 스냅샷이 한 번도 없으면 오류를 그대로 전달한다.
+     */
+    public Mono<List<Beverage>> getMenuWithinDeadline(CafeFactory factory) {
+        Duration deadline = deadlineProperties.getDeadline(factory);
+        return getMenu(factory).timeout(deadline).onErrorResume(e -> {
+            MenuSnapshot snapshot = entries.get(factory).snapshot;
+            if (snapshot == null) {
+                log.warn("{} 메뉴를 {} 안에 가져오지 못했고 스냅샷도 없다.",
+                    factory.getClass().getSimpleName(), deadline, e);
+                return Mono.error(e);
+            }
+            log.warn("{} 메뉴를 {} 안에 가져오지 못해 {}에 크롤링한 스냅샷을 반환한다.",
+                factory.getClass().getSimpleName(), deadline, snapshot.getFetchedAt(), e);
+            return Mono.just(snapshot.getBeverages());
+        });
+    }
+
+    /**
+     * 스냅샷이 만료되지 않았어도 크롤링한다. 이미 진행 중인 크롤링이 있으면 새로 시작하지 않고 그 결과를 함께 기다린다.
+     */
+    public Mono<MenuSnapshot> refresh(CafeFactory factory) {
+        Entry entry = entries.computeIfAbsent(factory, Entry::new);
+        return entry.restore().then(Mono.defer(entry::refresh));
+    }
+
+    /**
+     * 마지막 스냅샷. 저장소에도 없으면 빈 Mono를 반환한다.
+     */
+    public Mono<MenuSnapshot> findSnapshot(CafeFactory factory) {
+        Entry entry = entries.computeIfAbsent(factory, Entry::new);
+        return entry.restore().then(Mono.fromSupplier(() -> entry.snapshot));
+    }
+
+    private Mono<List<Beverage>> serve(Entry entry) {
+        CafeFactory factory = entry.factory;
+        MenuSnapshot snapshot = entry.snapshot;
+        Instant now = Instant.now();
+
+        if (snapshot != null && !snapshot.isOlderThan(ttl, now)) {
+            if (snapshot.isOlderThan(ttl.minus(refreshAhead), now)) {
+                countRequest(factory, "refresh-ahead");
+                entry.refresh().subscribe(refreshed -> {
+                }, e -> log.warn("{} 메뉴 백그라운드 갱신 실패", factory.getClass().getSimpleName(), e));
+            } else {
+                countRequest(factory, "hit");
+            }
+            return Mono.just(snapshot.getBeverages());
+        }
+
+        countRequest(factory, "miss");
+        return entry.refresh().map(MenuSnapshot::getBeverages).onErrorResume(e -> {
+            if (snapshot == null) {
+                return Mono.error(e);
+            }
+            log.warn("{} 메뉴 갱신 실패, 만료된 스냅샷을 반환한다.", factory.getClass().getSimpleName(), e);
+            return Mono.just(snapshot.getBeverages());
+        });
+    }
+
+    /**
+     * 저장소는 (company, name)을 키로 MERGE하므로, 한 번의 크롤링에 이름이 같은 메뉴가 여러 번 있으면 마지막 값만 남는다. 예) 여러
+     * 카테고리에 함께 실린 메뉴. 스냅샷도 저장소와 같은 메뉴를 갖도록, 이름이 같은 메뉴는 처음 나온 위치에 마지막 값을 남긴다.
+     */
+    static List<Beverage> distinctByName(List<Beverage> beverages) {
+        Map<String, Beverage> byName = new LinkedHashMap<>();
+        for (Beverage beverage : beverages) {
+            byName.put(beverage.getName(), beverage);
+        }
+        return byName.size() == beverages.size() ? beverages : new ArrayList<>(byName.values());
+    }
+
+    /**
+     * cafe.menu.cache.requests: 스냅샷으로 바로 응답한 요청(hit, refresh-ahead)과 크롤링을 기다린 요청(miss)의 수
+     */
+    private void countRequest(CafeFactory factory, String result) {
+        meterRegistry.counter("cafe.menu.cache.requests", "cafe",
+            factory.getCompany().getKorName(), "result", result).increment();
+    }
+
+    /**
+     * 카페별 스냅샷과 진행 중인 크롤링
+     * <p>
+     * cache(): 진행 중인 크롤링을 여러 구독자가 공유하므로, 동시에 갱신이 필요해도 크롤링은 한 번만 실행된다. 구독자가 취소해도 크롤링은 끝까지 진행된다.
+     * <p>
+     * tap(Micrometer.metrics()): 크롤링 시간(cafe.crawl.flow.duration)과 카페별로 방출한 메뉴
+     * 수(cafe.crawl.onNext.delay의 count)를 기록한다.
+     * <p>
+     * 저장소 조회와 저장은 블로킹 JDBC이므로 boundedElastic 스레드에서 실행한다. 저장이 끝난 뒤에 크롤링을 완료하므로, 다음
+     * 크롤링의 저장과 순서가 바뀌지 않는다. 저장소 오류는 로그만 남기고 메모리의 스냅샷으로 계속 응답한다.
+     */
+    private class Entry {
+
+        private final CafeFactory factory;
+        private final Mono<Void> restored;
+        private volatile MenuSnapshot snapshot;
+        private Mono<MenuSnapshot> inFlight;
+
+        Entry(CafeFactory factory) {
+            this.factory = factory;
+            this.restored = Mono.fromCallable(
+                    () -> beverageRepository.findSnapshot(factory.getCompany()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(stored -> stored.ifPresent(this::restoreSnapshot))
+                .onErrorResume(e -> {
+                    log.warn("{} 저장된 메뉴 조회 실패", factory.getClass().getSimpleName(), e);
+                    return Mono.empty();
+                })
+                .then()
+                .cache();
+        }
+
+        Mono<Void> restore() {
+            return restored;
+        }
+
+        synchronized Mono<MenuSnapshot> refresh() {
+            if (inFlight == null) {
+                inFlight = factory.createBeverage()
+                    .name("cafe.crawl")
+                    .tag("cafe", factory.getCompany().getKorName())
+                    .tap(Micrometer.metrics(meterRegistry))
+                    .collectList()
+                    .map(beverages -> new MenuSnapshot(distinctByName(beverages), Instant.now()))
+                    .flatMap(this::keepPreviousIfEmpty)
+                    .doOnNext(this::replaceSnapshot)
+                    .flatMap(refreshed -> save(refreshed).thenReturn(refreshed))
+                    .doFinally(signal -> clearInFlight())
+                    .cache();
+            }
+            return inFlight;
+        }
+
+        /**
+         * 크롤링은 성공했지만 메뉴가 하나도 없으면(페이지 구조 변경 등) 이전 스냅샷을 지우지 않도록 실패로 처리한다. 크롤링이 실패했을
+         * 때처럼 호출한 쪽은 이전 스냅샷으로 응답하고, MenuSnapshotEvent도 발행하지 않는다.
+         * <p>
+         * 이전 스냅샷이 없으면 지울 메뉴가 없으므로 빈 스냅샷을 그대로 사용한다.
+         */
+        private Mono<MenuSnapshot> keepPreviousIfEmpty(MenuSnapshot refreshed) {
+            if (refreshed.getBeverages().isEmpty() && snapshot != null) {
+                return Mono.error(new IllegalStateException(
+                    factory.getClass().getSimpleName() + " 크롤링 결과가 비어 있어 이전 스냅샷을 유지한다."));
+            }
+            return Mono.just(refreshed);
+        }
+
+        /**
+         * 크롤링 결과가 비어 있으면 저장된 메뉴를 모두 지우게 되므로 저장하지 않는다.
+         */
+        private Mono<Void> save(MenuSnapshot refreshed) {
+            if (refreshed.getBeverages().isEmpty()) {
+                return Mono.empty();
+            }
+            Company company = factory.getCompany();
+            return Mono.fromRunnable(() -> beverageRepository.replace(company, refreshed))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    log.warn("{} 메뉴 저장 실패", factory.getClass().getSimpleName(), e);
+                    return Mono.empty();
+                })
+                .then();
+        }
+
+        private synchronized void restoreSnapshot(MenuSnapshot stored) {
+            if (snapshot == null) {
+                replaceSnapshot(stored);
+            }
+        }
+
+        /**
+         * publishEvent(): 리스너를 현재 스레드에서 바로 호출하므로, getMenu()가 완료되기 전에 리스너가 새 스냅샷을 반영한다.
+         */
+        private void replaceSnapshot(MenuSnapshot replaced) {
+            snapshot = replaced;
+            eventPublisher.publishEvent(new MenuSnapshotEvent(factory.getCompany(), replaced));
+        }
+
+        private synchronized void clearInFlight() {
+            inFlight = null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.limhm.enemy.sugar.cache;
+
+import com.limhm.enemy.sugar.domain.Company;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MenuSnapshotCache가 카페의 스냅샷을 교체했을 때 발행한다. 크롤링으로 갱신했거나 저장소에서 불러온 경우이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MenuSnapshotEvent {
+
+    private final Company company;
+    private final MenuSnapshot snapshot;
+}
@@ -0,0 +1,18 @@
+package com.limhm.enemy.sugar.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 호스트별 회로 차단기 상태와 누적 횟수. failures는 5xx, 429, 연결 오류 응답 수, shortCircuited는 회로가 열려 보내지 않은 요청 수이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BreakerStats {
+
+    private final String state;
+    private final int consecutiveFailures;
+    private final long failures;
+    private final long retries;
+    private final long shortCircuited;
+}
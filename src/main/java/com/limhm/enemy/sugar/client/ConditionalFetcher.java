@@ -0,0 +1,141 @@
+package com.limhm.enemy.sugar.client;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.exception.CircuitOpenException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+
+/**
+ * 카페와 경로별로 응답의 ETag, Last-Modified와 파싱한 메뉴 목록을 저장하고, 다음 크롤링에서 조건부 요청을 보낸다.
+ * <ul>
+ *     <li>저장한 값이 있으면 If-None-Match, If-Modified-Since 헤더를 보낸다.</li>
+ *     <li>304 Not Modified: 응답 본문이 없으므로 파싱하지 않고 저장한 메뉴 목록을 그대로 방출한다.</li>
+ *     <li>200: 응답을 파싱하고, ETag나 Last-Modified가 있으면 파싱한 메뉴 목록과 함께 저장한다.</li>
+ * </ul>
+ * 조건부 요청은 GET에만 의미가 있으므로, POST로 조회하는 투썸플레이스는 사용하지 않는다.
+ * <p>
+ * 호스트의 회로가 열려 요청을 보내지 못하면(CircuitOpenException) 저장한 메뉴 목록을 대신 방출한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConditionalFetcher {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Validated> store = new ConcurrentHashMap<>();
+
+    /**
+     * 크롤링 한 번(createBeverage 구독 한 번)에서 보낸 요청 수와 304 응답 수를 세고, 끝나면 로그로 남긴다.
+     * <p>
+     * contextWrite(): 구독 시점에 CrawlCount를 Context에 넣는다. Context는 구독마다 따로 만들어지므로 같은 카페를 동시에 크롤링해도
+     * 집계가 섞이지 않는다.
+     */
+    public Flux<Beverage> crawl(String cafe, Flux<Beverage> beverages) {
+        return Flux.defer(() -> {
+            CrawlCount count = new CrawlCount();
+            return beverages
+                .doOnComplete(() -> log.info("{} 크롤링: 요청 {}건 중 {}건 변경 없음", cafe,
+                    count.requests.get(), count.unchanged.get()))
+                .contextWrite(context -> context.put(CrawlCount.class, count));
+        });
+    }
+
+    /**
+     * exchangeToFlux(): retrieve()와 달리 상태 코드와 헤더를 직접 확인한 뒤 본문을 읽는다. 4xx, 5xx는
+     * createException()으로 retrieve()와 같은 WebClientResponseException을 발생시킨다.
+     * <p>
+     * deferContextual(): 구독할 때 crawl()이 넣은 CrawlCount를 꺼낸다.
+     * <p>
+     * cafe.fetch.conditional: 304로 파싱을 건너뛴 응답(result=not-modified)과 파싱한 응답(result=modified)의 수
+     */
+    public Flux<Beverage> fetch(String cafe, String path, RequestHeadersSpec<?> request,
+        Function<Flux<DataBuffer>, Flux<Beverage>> parser) {
+        String key = cafe + " " + path;
+        return Flux.deferContextual(context -> {
+            CrawlCount count = context.getOrDefault(CrawlCount.class, new CrawlCount());
+            count.requests.incrementAndGet();
+            Validated validated = store.get(key);
+            if (validated != null) {
+                request.headers(validated::writeTo);
+            }
+            return request.exchangeToFlux(response -> {
+                HttpStatusCode status = response.statusCode();
+                if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED) && validated != null) {
+                    count.unchanged.incrementAndGet();
+                    meterRegistry.counter("cafe.fetch.conditional", "cafe", cafe,
+                        "result", "not-modified").increment();
+                    return response.releaseBody().thenMany(Flux.fromIterable(validated.items));
+                }
+                if (status.isError()) {
+                    return response.createException().flatMapMany(Flux::error);
+                }
+                meterRegistry.counter("cafe.fetch.conditional", "cafe", cafe, "result", "modified")
+                    .increment();
+                return parseAndStore(cafe, key, response, parser);
+            }).onErrorResume(CircuitOpenException.class, e -> validated == null
+                ? Flux.error(e) : Flux.fromIterable(validated.items));
+        });
+    }
+
+    /**
+     * name(), tag(), tap(Micrometer.metrics()): 응답 헤더를 받은 뒤 본문을 읽고 마지막 메뉴를 파싱할
+     * 때까지의 시간(cafe.parse.flow.duration)과 파싱한 메뉴 수(cafe.parse.onNext.delay의 count)를
+     * 카페별로 기록한다.
+     */
+    private Flux<Beverage> parseAndStore(String cafe, String key, ClientResponse response,
+        Function<Flux<DataBuffer>, Flux<Beverage>> parser) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        String eTag = headers.getETag();
+        long lastModified = headers.getLastModified();
+        Flux<Beverage> beverages = parser.apply(response.bodyToFlux(DataBuffer.class))
+            .name("cafe.parse")
+            .tag("cafe", cafe)
+            .tap(Micrometer.metrics(meterRegistry));
+        if (eTag == null && lastModified < 0) {
+            store.remove(key);
+            return beverages;
+        }
+        List<Beverage> items = new ArrayList<>();
+        return beverages.doOnNext(items::add).doOnComplete(
+            () -> store.put(key, new Validated(eTag, lastModified, List.copyOf(items))));
+    }
+
+    @RequiredArgsConstructor
+    private static class Validated {
+
+        private final String eTag;
+        private final long lastModified;
+        private final List<Beverage> items;
+
+        private void writeTo(HttpHeaders headers) {
+            if (eTag != null) {
+                headers.setIfNoneMatch(eTag);
+            }
+            if (lastModified >= 0) {
+                headers.setIfModifiedSince(lastModified);
+            }
+        }
+    }
+
+    private static class CrawlCount {
+
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+    }
+}
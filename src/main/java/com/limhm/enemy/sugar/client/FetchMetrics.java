@@ -0,0 +1,72 @@
+package com.limhm.enemy.sugar.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+/**
+ * 크롤링 요청마다 응답 시간과 응답 크기를 기록한다.
+ * <ul>
+ *     <li>cafe.fetch.requests: 요청을 보낸 후 응답 헤더를 받을 때까지의 시간. 태그는 host, uri, method, status</li>
+ *     <li>cafe.fetch.response.size: 응답 본문의 크기(압축 해제 후 byte). 태그는 host, uri</li>
+ * </ul>
+ * uri 태그는 URI_TEMPLATE 속성이 있으면 그 값, 없으면 쿼리 문자열을 뺀 경로이다. 쿼리 문자열의 페이지 번호(page=2)는 경로만으로 같은
+ * 시계열로 모이지만, 경로에 번호가 들어가는 요청(컴포즈커피의 /185, /186)은 번호마다 시계열이 생기므로 팩토리가 템플릿을 지정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class FetchMetrics {
+
+    /**
+     * 요청 속성 이름. 예) webClient.get().uri(path).attribute(FetchMetrics.URI_TEMPLATE, "/{category}")
+     */
+    public static final String URI_TEMPLATE = FetchMetrics.class.getName() + ".URI_TEMPLATE";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * FetchScheduler 필터보다 안쪽에 등록하므로 대기열에서 기다린 시간은 포함하지 않고, 재시도는 각각 기록한다.
+     * <p>
+     * mutate().body(): 응답 본문의 DataBuffer가 지나갈 때 크기를 더하고, 본문을 끝까지 읽으면 기록한다.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                .doOnError(e -> sample.stop(requestTimer(request, "IO_ERROR")))
+                .map(response -> {
+                    sample.stop(requestTimer(request,
+                        String.valueOf(response.statusCode().value())));
+                    DistributionSummary size = DistributionSummary
+                        .builder("cafe.fetch.response.size")
+                        .baseUnit("bytes")
+                        .tag("host", request.url().getHost())
+                        .tag("uri", uri(request))
+                        .register(meterRegistry);
+                    AtomicLong bytes = new AtomicLong();
+                    return response.mutate().body(body -> body
+                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                        .doOnComplete(() -> size.record(bytes.get()))).build();
+                });
+        };
+    }
+
+    private Timer requestTimer(ClientRequest request, String status) {
+        return Timer.builder("cafe.fetch.requests")
+            .tag("host", request.url().getHost())
+            .tag("uri", uri(request))
+            .tag("method", request.method().name())
+            .tag("status", status)
+            .register(meterRegistry);
+    }
+
+    private static String uri(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE).map(String::valueOf)
+            .orElseGet(() -> request.url().getPath());
+    }
+}
@@ -0,0 +1,93 @@
+package com.limhm.enemy.sugar.client;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 크롤링 요청의 동시 실행 수와 속도를 제한하는 설정
+ * <p>
+ * 호스트 이름에 점(.)이 있으므로 cafe.fetch.hosts[mo.twosome.co.kr].max-in-flight=4 와 같이 대괄호로 감싼다.
+ * <p>
+ * memoTtl: ResponseMemo가 응답 본문을 기억할 시간. 0이면 크롤링 한 번 동안만 기억한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cafe.fetch")
+public class FetchProperties {
+
+    private HostLimit defaults = new HostLimit();
+    private Map<String, HostLimit> hosts = new HashMap<>();
+    private Map<String, StageTuning> stages = new HashMap<>();
+    private Pagination pagination = new Pagination();
+    private Resilience resilience = new Resilience();
+    private Duration memoTtl = Duration.ZERO;
+
+    public HostLimit getHostLimit(String host) {
+        return hosts.getOrDefault(host, defaults);
+    }
+
+    public StageTuning getStage(String stage) {
+        return stages.getOrDefault(stage, new StageTuning());
+    }
+
+    /**
+     * maxInFlight: 호스트별로 동시에 보낼 수 있는 요청 수
+     * <p>
+     * permitsPerSecond, burst: 토큰 버킷. 초당 permitsPerSecond개의 토큰이 채워지고, 최대 burst개까지 모아 둘 수 있다.
+     * permitsPerSecond가 0 이하이면 속도를 제한하지 않는다.
+     */
+    @Getter
+    @Setter
+    public static class HostLimit {
+
+        private int maxInFlight = 8;
+        private double permitsPerSecond = 20;
+        private int burst = 20;
+    }
+
+    /**
+     * flatMap(mapper, concurrency, prefetch)에 전달할 값. concurrency는 동시에 구독할 내부 퍼블리셔 수, prefetch는 내부
+     * 퍼블리셔마다 미리 요청할 요소 수이다.
+     */
+    @Getter
+    @Setter
+    public static class StageTuning {
+
+        private int concurrency = 8;
+        private int prefetch = 32;
+    }
+
+    /**
+     * lookAhead: 응답을 기다리지 않고 미리 요청할 페이지 수. 빈 페이지를 지나 불필요하게 요청하는 페이지는 최대 lookAhead - 1개이다.
+     * <p>
+     * maxPages: 빈 페이지가 나오지 않아도 요청하지 않을 상한
+     */
+    @Getter
+    @Setter
+    public static class Pagination {
+
+        private int lookAhead = 3;
+        private int maxPages = 50;
+    }
+
+    /**
+     * maxRetries: 첫 요청 이후 재시도 횟수. minBackoff, maxBackoff: 재시도 간격의 최솟값과 최댓값, jitter: 간격을 흔드는 비율(0~1)
+     * <p>
+     * failureThreshold: 회로를 여는 연속 실패 횟수, openDuration: 회로를 연 뒤 시험 요청을 보내기까지 기다리는 시간
+     */
+    @Getter
+    @Setter
+    public static class Resilience {
+
+        private int maxRetries = 3;
+        private Duration minBackoff = Duration.ofMillis(200);
+        private Duration maxBackoff = Duration.ofSeconds(3);
+        private double jitter = 0.5;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
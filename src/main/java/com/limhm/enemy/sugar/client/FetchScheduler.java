@@ -0,0 +1,47 @@
+package com.limhm.enemy.sugar.client;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+/**
+ * 호스트별로 요청의 동시 실행 수와 속도를 제한한다.
+ * <p>
+ * 투썸플레이스처럼 한 번의 크롤링에 수백 개의 요청을 보내는 카페도 호스트별 HostLane 대기열을 거치므로, 커넥션 풀이 고갈되거나 업스트림에서 차단되지
+ * 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class FetchScheduler {
+
+    private final FetchProperties fetchProperties;
+    private final Map<String, HostLane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * WebClient에 등록하는 필터. 응답 본문을 끝까지 받거나 취소할 때까지 동시 실행 수를 차지한다. 전송 시간의 대부분은 본문을 받는
+     * 시간이므로, 응답 헤더를 받을 때 반환하면 maxInFlight보다 많은 본문을 동시에 받게 된다.
+     * <p>
+     * mutate().body(): 본문 Flux에 doFinally()를 붙인다. 본문을 읽지 않고 버리는 경우에도 WebClient가 releaseBody()로 본문을
+     * 구독해 해제하므로 동시 실행 수가 반환된다.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> lane(request.url().getHost())
+            .submit(release -> next.exchange(request)
+                .map(response -> response.mutate()
+                    .body(body -> body.doFinally(signal -> release.run()))
+                    .build()));
+    }
+
+    private HostLane lane(String host) {
+        return lanes.computeIfAbsent(host, h -> new HostLane(fetchProperties.getHostLimit(h)));
+    }
+
+    public Map<String, HostStats> stats() {
+        Map<String, HostStats> stats = new TreeMap<>();
+        lanes.forEach((host, lane) -> stats.put(host, lane.stats()));
+        return stats;
+    }
+}
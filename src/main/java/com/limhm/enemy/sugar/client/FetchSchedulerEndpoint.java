@@ -0,0 +1,23 @@
+package com.limhm.enemy.sugar.client;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/fetch: 호스트별 대기열 길이, 실행 중인 요청 수, 대기 시간을 조회한다.
+ */
+@Component
+@Endpoint(id = "fetch")
+@RequiredArgsConstructor
+public class FetchSchedulerEndpoint {
+
+    private final FetchScheduler fetchScheduler;
+
+    @ReadOperation
+    public Map<String, HostStats> stats() {
+        return fetchScheduler.stats();
+    }
+}
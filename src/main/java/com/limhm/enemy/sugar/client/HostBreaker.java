@@ -0,0 +1,96 @@
+package com.limhm.enemy.sugar.client;
+
+import com.limhm.enemy.sugar.client.FetchProperties.Resilience;
+import java.util.function.LongSupplier;
+
+/**
+ * 호스트 하나의 회로 차단기(circuit breaker)
+ * <ul>
+ *     <li>CLOSED: 요청을 보낸다. 연속 failureThreshold번 실패하면 OPEN이 된다.</li>
+ *     <li>OPEN: openDuration 동안 요청을 보내지 않고 바로 실패한다.</li>
+ *     <li>HALF_OPEN: openDuration이 지나면 요청 하나만 시험으로 보낸다. 성공하면 CLOSED, 실패하면 다시 OPEN이 된다.</li>
+ * </ul>
+ */
+class HostBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedNanos;
+    private boolean trialInFlight;
+    private long failures;
+    private long retries;
+    private long shortCircuited;
+
+    HostBreaker(Resilience resilience) {
+        this(resilience, System::nanoTime);
+    }
+
+    HostBreaker(Resilience resilience, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, resilience.getFailureThreshold());
+        this.openNanos = resilience.getOpenDuration().toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * 요청을 보내도 되면 true를 반환한다. false이면 요청을 보내지 않고 차단한 횟수를 센다.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedNanos < openNanos) {
+                shortCircuited++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                shortCircuited++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    synchronized void onFailure() {
+        failures++;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedNanos = nanoClock.getAsLong();
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * 시험 요청이 결과 없이 취소되면 다음 요청이 다시 시험할 수 있게 한다.
+     */
+    synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    synchronized void onRetry() {
+        retries++;
+    }
+
+    synchronized BreakerStats stats() {
+        return new BreakerStats(state.name(), consecutiveFailures, failures, retries,
+            shortCircuited);
+    }
+}
@@ -0,0 +1,194 @@
+package com.limhm.enemy.sugar.client;
+
+import com.limhm.enemy.sugar.client.FetchProperties.HostLimit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 호스트 하나의 요청 대기열
+ * <p>
+ * 동시에 실행 중인 요청이 maxInFlight보다 적고 토큰 버킷에 토큰이 있을 때만 대기열의 요청을 구독한다. 토큰이 부족하면 다음 토큰이 채워지는 시점에
+ * 다시 대기열을 확인한다.
+ * <p>
+ * scheduler와 nanoClock: 토큰이 채워질 때까지 기다리는 작업을 예약하고 현재 시각을 읽는다. 테스트에서는 가상 시간을 쓴다.
+ */
+class HostLane {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxInFlight;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Scheduler scheduler;
+    private final LongSupplier nanoClock;
+    private final Queue<Pending<?>> queue = new ArrayDeque<>();
+    private int inFlight;
+    private double tokens;
+    private long lastRefillNanos;
+    private boolean drainScheduled;
+    private long started;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    HostLane(HostLimit limit) {
+        this(limit, Schedulers.parallel(), System::nanoTime);
+    }
+
+    HostLane(HostLimit limit, Scheduler scheduler, LongSupplier nanoClock) {
+        this.maxInFlight = Math.max(1, limit.getMaxInFlight());
+        this.permitsPerSecond = limit.getPermitsPerSecond();
+        this.burst = Math.max(1, limit.getBurst());
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * request가 값을 방출한 뒤에도 release를 호출할 때까지 동시 실행 수를 차지한다. 예) 응답 본문을 끝까지 받을 때까지
+     * <p>
+     * 값을 방출하지 못하고 끝나면(빈 응답, 오류, 취소) release를 호출하지 않아도 반환한다. release는 여러 번 호출해도 한 번만
+     * 반환한다.
+     * <p>
+     * create(): 구독 시점에 요청을 대기열에 넣는다. 구독이 취소되면 대기 중인 요청은 대기열에서 빼고, 실행 중인 요청은 취소한다.
+     */
+    <T> Mono<T> submit(Function<Runnable, Mono<T>> request) {
+        return Mono.create(sink -> {
+            Pending<T> pending = new Pending<>(request, sink);
+            sink.onCancel(() -> cancel(pending));
+            synchronized (this) {
+                queue.add(pending);
+            }
+            drain();
+        });
+    }
+
+    synchronized HostStats stats() {
+        double averageWaitNanos = started == 0 ? 0 : (double) totalWaitNanos / started;
+        return new HostStats(queue.size(), inFlight, started, averageWaitNanos / 1_000_000,
+            maxWaitNanos / 1_000_000.0);
+    }
+
+    private void drain() {
+        List<Pending<?>> ready = new ArrayList<>();
+        long delayNanos = 0;
+        synchronized (this) {
+            refill();
+            while (inFlight < maxInFlight && !queue.isEmpty()) {
+                if (permitsPerSecond > 0 && tokens < 1) {
+                    delayNanos = (long) Math.ceil(
+                        (1 - tokens) / permitsPerSecond * NANOS_PER_SECOND);
+                    break;
+                }
+                tokens -= 1;
+                inFlight++;
+                Pending<?> pending = queue.poll();
+                recordWait(nanoClock.getAsLong() - pending.enqueuedNanos);
+                ready.add(pending);
+            }
+            if (delayNanos > 0 && !drainScheduled) {
+                drainScheduled = true;
+                scheduler.schedule(this::scheduledDrain, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        ready.forEach(Pending::start);
+    }
+
+    private void scheduledDrain() {
+        synchronized (this) {
+            drainScheduled = false;
+        }
+        drain();
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        if (permitsPerSecond > 0) {
+            double refilled = (now - lastRefillNanos) / NANOS_PER_SECOND * permitsPerSecond;
+            tokens = Math.min(burst, tokens + refilled);
+        }
+        lastRefillNanos = now;
+    }
+
+    private void recordWait(long waitNanos) {
+        started++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    private void cancel(Pending<?> pending) {
+        boolean queued;
+        synchronized (this) {
+            queued = queue.remove(pending);
+        }
+        if (!queued) {
+            pending.dispose();
+        }
+    }
+
+    /**
+     * doFinally(): 요청이 값을 방출하지 못하고 끝나면 실패, 취소 중 어떤 방식이든 동시 실행 수를 반환한다.
+     */
+    private class Pending<T> {
+
+        private final Function<Runnable, Mono<T>> request;
+        private final MonoSink<T> sink;
+        private final long enqueuedNanos = nanoClock.getAsLong();
+        private Disposable subscription;
+        private boolean disposed;
+
+        Pending(Function<Runnable, Mono<T>> request, MonoSink<T> sink) {
+            this.request = request;
+            this.sink = sink;
+        }
+
+        void start() {
+            AtomicBoolean released = new AtomicBoolean();
+            Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            };
+            AtomicBoolean emitted = new AtomicBoolean();
+            Disposable started = request.apply(release)
+                .doOnNext(value -> emitted.set(true))
+                .doFinally(signal -> {
+                    if (!emitted.get()) {
+                        release.run();
+                    }
+                })
+                .subscribe(sink::success, sink::error, sink::success);
+            synchronized (this) {
+                subscription = started;
+                if (disposed) {
+                    started.dispose();
+                }
+            }
+        }
+
+        synchronized void dispose() {
+            disposed = true;
+            if (subscription != null) {
+                subscription.dispose();
+            }
+        }
+    }
+}
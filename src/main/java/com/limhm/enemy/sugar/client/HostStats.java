@@ -0,0 +1,18 @@
+package com.limhm.enemy.sugar.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 호스트별 요청 대기열 상태. 대기 시간은 요청이 대기열에 들어간 시점부터 실제로 전송된 시점까지이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class HostStats {
+
+    private final int queueDepth;
+    private final int inFlight;
+    private final long started;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+}
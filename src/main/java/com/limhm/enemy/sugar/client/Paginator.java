@@ -0,0 +1,63 @@
+package com.limhm.enemy.sugar.client;
+
+import com.limhm.enemy.sugar.client.FetchProperties.Pagination;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 페이지 범위를 고정하지 않고, 메뉴가 없는 페이지가 나올 때까지 페이지를 차례로 요청한다.
+ * <ul>
+ *     <li>빈 페이지: 응답에 메뉴가 없거나 404이면 마지막 페이지를 지난 것으로 본다.</li>
+ *     <li>반복 페이지: 범위를 벗어난 페이지 번호에 마지막 페이지를 다시 주는 사이트가 있으므로, 직전 페이지와 메뉴가 같아도 멈춘다.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class Paginator {
+
+    private final FetchProperties fetchProperties;
+
+    /**
+     * flatMapSequential(mapper, lookAhead, 1): lookAhead개 페이지를 동시에 요청하고, 결과는 페이지 순서대로 전달한다.
+     * <p>
+     * takeWhile(): 빈 페이지나 반복 페이지를 만나면 취소 신호를 보내 아직 응답을 기다리는 페이지 요청도 함께 취소한다.
+     * 취소된 요청의 커넥션과 호스트별 동시 실행 수는 SingleFlightFilter와 FetchScheduler가 바로 반환한다.
+     * <p>
+     * identity: 반복 페이지를 판단할 때 비교할 메뉴의 값
+     */
+    public <T> Flux<T> paginate(int firstPage, IntFunction<Flux<T>> fetchPage,
+        Function<T, ?> identity) {
+        Pagination pagination = fetchProperties.getPagination();
+        return Flux.defer(() -> {
+            AtomicReference<List<?>> previous = new AtomicReference<>(List.of());
+            return Flux.range(firstPage, pagination.getMaxPages())
+                .flatMapSequential(page -> fetchPage.apply(page).collectList()
+                        .onErrorResume(Paginator::isNotFound, e -> Mono.just(List.of())),
+                    pagination.getLookAhead(), 1)
+                .takeWhile(items -> {
+                    List<?> keys = items.stream().map(identity).toList();
+                    return !keys.isEmpty() && !keys.equals(previous.getAndSet(keys));
+                })
+                .flatMapIterable(items -> items);
+        });
+    }
+
+    /**
+     * 팩토리는 응답 오류를 ConnectionException으로 감싸므로 원인을 따라가며 404를 찾는다.
+     */
+    private static boolean isNotFound(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException.NotFound) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.limhm.enemy.sugar.client;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * GET /actuator/resilience: 호스트별 회로 차단기 상태와 재시도, 차단 횟수를 조회한다.
+ */
+@Component
+@Endpoint(id = "resilience")
+@RequiredArgsConstructor
+public class ResilienceEndpoint {
+
+    private final ResilienceFilter resilienceFilter;
+
+    @ReadOperation
+    public Map<String, BreakerStats> stats() {
+        return resilienceFilter.stats();
+    }
+}
@@ -0,0 +1,107 @@
+package com.limhm.enemy.sugar.client;
+
+import com.limhm.enemy.sugar.client.FetchProperties.Resilience;
+import com.limhm.enemy.sugar.exception.CircuitOpenException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * 일시적인 오류는 재시도하고, 계속 실패하는 호스트에는 요청을 보내지 않는다.
+ * <ul>
+ *     <li>일시적인 오류: 연결 실패, 타임아웃, 연결 끊김(WebClientRequestException)과 5xx, 429 응답</li>
+ *     <li>재시도 대상: GET, HEAD와 IDEMPOTENT 속성을 true로 지정한 POST. 조회만 하는 POST에 지정한다.</li>
+ *     <li>회로 차단: 호스트마다 HostBreaker가 연속 실패를 세고, 회로가 열리면 CircuitOpenException으로 바로 실패한다.</li>
+ * </ul>
+ * FetchScheduler 필터보다 바깥에 등록하므로, 재시도도 호스트별 대기열과 속도 제한을 다시 거친다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResilienceFilter {
+
+    /**
+     * 요청 속성 이름. 예) webClient.post().attribute(ResilienceFilter.IDEMPOTENT, true)
+     */
+    public static final String IDEMPOTENT = ResilienceFilter.class.getName() + ".IDEMPOTENT";
+
+    private final FetchProperties fetchProperties;
+    private final Map<String, HostBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * defer(): 재시도할 때마다 회로 상태를 다시 확인하고 요청을 새로 보낸다.
+     * <p>
+     * Retry.backoff(maxRetries, minBackoff): 재시도 간격을 minBackoff부터 두 배씩 늘리고 maxBackoff에서 멈춘다.
+     * jitter(): 간격을 무작위로 흔들어 여러 요청이 같은 시점에 한꺼번에 재시도하지 않게 한다.
+     * <p>
+     * onRetryExhaustedThrow(): 재시도를 모두 실패하면 RetryExhaustedException 대신 마지막 오류를 그대로 전달한다.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            String host = request.url().getHost();
+            HostBreaker breaker = breakers.computeIfAbsent(host,
+                h -> new HostBreaker(fetchProperties.getResilience()));
+            Mono<ClientResponse> attempt = Mono.defer(() -> {
+                if (!breaker.tryAcquire()) {
+                    return Mono.error(new CircuitOpenException(host));
+                }
+                return next.exchange(request)
+                    .doOnError(e -> breaker.onFailure())
+                    .flatMap(response -> {
+                        if (isTransient(response.statusCode())) {
+                            breaker.onFailure();
+                            return response.createException().flatMap(Mono::error);
+                        }
+                        breaker.onSuccess();
+                        return Mono.just(response);
+                    })
+                    .doOnCancel(breaker::onCancel);
+            });
+            if (!isRetryable(request)) {
+                return attempt;
+            }
+            Resilience resilience = fetchProperties.getResilience();
+            return attempt.retryWhen(
+                Retry.backoff(resilience.getMaxRetries(), resilience.getMinBackoff())
+                    .maxBackoff(resilience.getMaxBackoff())
+                    .jitter(resilience.getJitter())
+                    .filter(ResilienceFilter::isTransient)
+                    .doBeforeRetry(signal -> breaker.onRetry())
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        };
+    }
+
+    public Map<String, BreakerStats> stats() {
+        Map<String, BreakerStats> stats = new TreeMap<>();
+        breakers.forEach((host, breaker) -> stats.put(host, breaker.stats()));
+        return stats;
+    }
+
+    private static boolean isRetryable(ClientRequest request) {
+        HttpMethod method = request.method();
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)
+            || Boolean.TRUE.equals(request.attribute(IDEMPOTENT).orElse(false));
+    }
+
+    private static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return isTransient(responseException.getStatusCode());
+        }
+        return error instanceof WebClientRequestException;
+    }
+
+    private static boolean isTransient(HttpStatusCode status) {
+        return status.is5xxServerError() || status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
@@ -0,0 +1,78 @@
+package com.limhm.enemy.sugar.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 같은 요청의 응답 본문을 기억했다가, 다시 요청하지 않고 기억한 본문을 돌려준다.
+ * <ul>
+ *     <li>ttl이 0: 크롤링 한 번 동안만 사용하도록 크롤링마다 새로 만든다.</li>
+ *     <li>ttl이 양수: 여러 크롤링이 함께 사용한다. 본문은 ttl이 지나면 다시 요청한다.</li>
+ * </ul>
+ * 실패한 응답은 기억하지 않는다. 같은 요청이 잠깐 실패해도 다음 요청은 다시 보낸다.
+ * SingleFlightFilter는 동시에 진행 중인 요청만 합치지만, ResponseMemo는 이미 끝난 요청의 응답도 재사용한다.
+ */
+public class ResponseMemo {
+
+    private final Duration ttl;
+    private final MeterRegistry meterRegistry;
+    private final String cafe;
+    private final Map<String, Mono<byte[]>> bodies = new ConcurrentHashMap<>();
+
+    public ResponseMemo(Duration ttl, MeterRegistry meterRegistry, String cafe) {
+        this.ttl = ttl;
+        this.meterRegistry = meterRegistry;
+        this.cafe = cafe;
+    }
+
+    /**
+     * key가 같은 요청을 처음 구독할 때만 fetch를 구독한다. 구독자마다 기억한 본문을 새 DataBuffer로 감싸 방출한다.
+     * <p>
+     * doOnError(): 요청이 실패하면 기억한 항목을 지워 다음 요청이 fetch를 다시 구독하게 한다. remove(key, value)이므로 그사이
+     * 새로 기억한 항목은 지우지 않는다.
+     * <p>
+     * cafe.fetch.memo: 기억한 본문으로 응답한 요청(result=hit)과 새로 보낸 요청(result=miss)의 수
+     */
+    public Flux<DataBuffer> body(String key, Flux<DataBuffer> fetch) {
+        return Flux.defer(() -> {
+            Mono<byte[]> created = memoize(fetch);
+            Mono<byte[]> body = bodies.putIfAbsent(key, created);
+            meterRegistry.counter("cafe.fetch.memo", "cafe", cafe,
+                "result", body == null ? "miss" : "hit").increment();
+            Mono<byte[]> memoized = body == null ? created : body;
+            return memoized
+                .doOnError(e -> bodies.remove(key, memoized))
+                .<DataBuffer>map(DefaultDataBufferFactory.sharedInstance::wrap)
+                .flux();
+        });
+    }
+
+    /**
+     * join(): 본문 조각을 하나의 DataBuffer로 합친다. 해제한 뒤에도 재사용할 수 있도록 byte[]로 복사한다.
+     * <p>
+     * cache(ttlForValue, ttlForError, ttlForEmpty): 값은 ttl 동안 기억하고, 오류와 빈 응답은 바로 잊는다. ttl이 0이면 오류도
+     * cache()에 남지만, body()가 오류를 받은 항목을 지우므로 다시 조회되지 않는다.
+     */
+    private Mono<byte[]> memoize(Flux<DataBuffer> fetch) {
+        Mono<byte[]> joined = DataBufferUtils.join(fetch).map(buffer -> {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                return bytes;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        });
+        if (ttl.isZero()) {
+            return joined.cache();
+        }
+        return joined.cache(bytes -> ttl, e -> Duration.ZERO, () -> Duration.ZERO);
+    }
+}
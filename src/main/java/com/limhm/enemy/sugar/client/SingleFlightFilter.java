@@ -0,0 +1,261 @@
+package com.limhm.enemy.sugar.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * 같은 요청(메소드, URL, 본문)이 응답을 기다리는 중이면 새로 보내지 않고 진행 중인 응답을 함께 받는다(single-flight).
+ * <ul>
+ *     <li>GET, HEAD: 메소드와 URL, 조건부 요청 헤더(If-None-Match, If-Modified-Since)로 같은 요청인지 판단한다.</li>
+ *     <li>본문이 있는 요청: BODY 속성에 bodyValue()와 같은 값을 지정한 요청만 합친다. 본문은 BodyInserter로만 전달되어
+ *     필터에서 읽을 수 없기 때문이다.</li>
+ * </ul>
+ * 응답 헤더를 받을 때까지 함께 기다린 요청이 없으면, 본문은 복사하지 않고 원래 응답 그대로 흘려보낸다(스트리밍, 배압 유지). 함께 기다린
+ * 요청이 있을 때만 본문을 보관했다가 요청마다 다시 방출한다.
+ * <p>
+ * 응답 헤더를 받기 전에 요청이 모두 취소되면 업스트림 요청도 취소한다. 받을 요청이 없는 응답은 본문을 해제해, 커넥션과
+ * FetchScheduler의 동시 실행 수를 바로 반환한다.
+ * <p>
+ * 응답 본문을 끝까지 받으면 목록에서 지우므로, 이미 끝난 요청의 응답을 재사용하지는 않는다. 오래 보관하는 캐시는
+ * MenuSnapshotCache와 ConditionalFetcher가 맡는다.
+ * <p>
+ * 모든 필터보다 바깥에 등록하므로, 함께 기다리는 요청은 대기열과 속도 제한을 차지하지 않고 재시도도 한 번만 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlightFilter {
+
+    /**
+     * 요청 속성 이름. 예) webClient.post().attribute(SingleFlightFilter.BODY, formData)
+     * .bodyValue(formData)
+     */
+    public static final String BODY = SingleFlightFilter.class.getName() + ".BODY";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * cafe.fetch.coalesced: 요청을 보내지 않고 진행 중인 응답을 함께 받은 요청 수
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> {
+            String key = key(request);
+            if (key == null) {
+                return next.exchange(request);
+            }
+            return Mono.defer(() -> {
+                while (true) {
+                    Flight created = new Flight(key, request, next);
+                    Flight flight = flights.putIfAbsent(key, created);
+                    if (flight == null) {
+                        created.join();
+                        created.start();
+                        return created.receive();
+                    }
+                    if (flight.join()) {
+                        meterRegistry.counter("cafe.fetch.coalesced",
+                            "host", request.url().getHost()).increment();
+                        return flight.receive();
+                    }
+                }
+            });
+        };
+    }
+
+    /**
+     * 합칠 수 없는 요청이면 null
+     */
+    private static String key(ClientRequest request) {
+        HttpMethod method = request.method();
+        Object body = request.attribute(BODY).orElse(null);
+        if (body == null && method != HttpMethod.GET && method != HttpMethod.HEAD) {
+            return null;
+        }
+        HttpHeaders headers = request.headers();
+        return method.name() + " " + request.url()
+            + " " + headers.getFirst(HttpHeaders.IF_NONE_MATCH)
+            + " " + headers.getFirst(HttpHeaders.IF_MODIFIED_SINCE)
+            + " " + body;
+    }
+
+    /**
+     * 진행 중인 요청 하나
+     * <p>
+     * Sinks.one(): 업스트림 요청은 한 번만 구독하고, 응답 헤더를 기다리는 요청마다 같은 값을 전달한다. cache()와 달리 요청이
+     * 취소되어도 업스트림에 전달되지 않으므로, 기다리는 요청 수(callers)를 직접 세어 모두 취소되면 upstream을 취소한다.
+     */
+    private class Flight {
+
+        private final String key;
+        private final Mono<ClientResponse> exchange;
+        private final Sinks.One<SharedResponse> response = Sinks.one();
+        private final Disposable.Swap upstream = Disposables.swap();
+        private int callers;
+        private boolean closed;
+        private SharedResponse shared;
+
+        Flight(String key, ClientRequest request, ExchangeFunction next) {
+            this.key = key;
+            this.exchange = next.exchange(request);
+        }
+
+        void start() {
+            upstream.update(exchange.map(this::share)
+                .subscribe(response::tryEmitValue, this::fail, response::tryEmitEmpty));
+        }
+
+        private void fail(Throwable e) {
+            land();
+            response.tryEmitError(e);
+        }
+
+        /**
+         * 응답을 받기 전에 취소한 요청은 leave()로 빠진다. 응답을 받은 뒤의 취소는 본문을 읽지 않고 버리는 것과 같으므로
+         * WebClient가 본문을 해제한다.
+         */
+        Mono<ClientResponse> receive() {
+            AtomicBoolean received = new AtomicBoolean();
+            return response.asMono()
+                .doOnNext(shared -> received.set(true))
+                .map(SharedResponse::toClientResponse)
+                .doOnCancel(() -> {
+                    if (!received.get()) {
+                        leave();
+                    }
+                });
+        }
+
+        /**
+         * 원래 응답을 혼자 받기로 한 뒤에는 합칠 수 없으므로 false를 반환한다. 호출한 쪽은 새 요청을 보낸다.
+         */
+        synchronized boolean join() {
+            if (closed) {
+                return false;
+            }
+            callers++;
+            return true;
+        }
+
+        /**
+         * 마지막 요청이 빠지면 더 합칠 수 없도록 닫는다. 응답 헤더를 받기 전이면 업스트림 요청을 취소하고, 원래 본문을 넘기기로 한
+         * 뒤라면 그 본문을 해제한다. 본문을 보관하는 응답은 이미 끝까지 읽고 있으므로 그대로 둔다.
+         */
+        private void leave() {
+            SharedResponse abandoned;
+            synchronized (this) {
+                if (--callers > 0 || closed && shared == null) {
+                    return;
+                }
+                closed = true;
+                abandoned = shared;
+            }
+            land();
+            if (abandoned == null) {
+                upstream.dispose();
+            } else {
+                abandoned.release();
+            }
+        }
+
+        /**
+         * 응답 헤더를 받았을 때 기다리는 요청이 하나뿐이면 목록에서 지우고 원래 본문을 그대로 넘긴다. 둘 이상이면 본문을 보관해 함께
+         * 읽고, 본문을 끝까지 받은 뒤 목록에서 지운다. 기다리는 요청이 없으면 본문을 해제한다.
+         */
+        private synchronized SharedResponse share(ClientResponse original) {
+            if (callers > 1) {
+                shared = SharedResponse.replayed(original, this::land);
+                return shared;
+            }
+            closed = true;
+            land();
+            shared = SharedResponse.direct(original);
+            if (callers == 0) {
+                shared.release();
+            }
+            return shared;
+        }
+
+        private void land() {
+            flights.remove(key, this);
+        }
+    }
+
+    /**
+     * 여러 구독자가 함께 읽는 응답. body가 null이면 구독자가 하나뿐이므로 원래 응답을 그대로 전달한다.
+     */
+    private static class SharedResponse {
+
+        private final ClientResponse original;
+        private final Flux<byte[]> body;
+
+        private SharedResponse(ClientResponse original, Flux<byte[]> body) {
+            this.original = original;
+            this.body = body;
+        }
+
+        static SharedResponse direct(ClientResponse original) {
+            return new SharedResponse(original, null);
+        }
+
+        /**
+         * replay().autoConnect(0): 구독자가 없어도 본문을 바로 끝까지 읽어 커넥션을 풀에 돌려주고, 받은 조각을 보관했다가
+         * 구독자마다 처음부터 다시 방출한다. DataBuffer는 한 번만 해제할 수 있으므로 byte[]로 복사한 뒤 바로 해제한다.
+         */
+        static SharedResponse replayed(ClientResponse original, Runnable onTerminate) {
+            return new SharedResponse(original, original.bodyToFlux(DataBuffer.class)
+                .map(SharedResponse::copy)
+                .doOnTerminate(onTerminate)
+                .replay()
+                .autoConnect(0));
+        }
+
+        /**
+         * 원래 본문을 넘길 요청이 없을 때 호출한다. 보관하는 본문은 이미 끝까지 읽고 있으므로 해제할 것이 없다.
+         */
+        void release() {
+            if (body == null) {
+                original.releaseBody().subscribe();
+            }
+        }
+
+        private static byte[] copy(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                return bytes;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        /**
+         * mutate(): 상태 코드와 헤더는 원래 응답을 그대로 쓰고, 본문만 보관한 조각으로 바꾼다.
+         */
+        ClientResponse toClientResponse() {
+            if (body == null) {
+                return original;
+            }
+            return original.mutate()
+                .body(body.map(DefaultDataBufferFactory.sharedInstance::wrap))
+                .build();
+        }
+    }
+}
@@ -1,46 +1,193 @@
 package com.limhm.enemy.sugar.common;
 
 import com.limhm.enemy.sugar.strategy.ExcelExportable;
+import com.limhm.enemy.sugar.strategy.ExcelStyleRegistry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * ExcelExportable 인터페이스를 구현한 클래스의 데이터를 엑셀로 출력한다.
+ * <p>
+ * 작성 방식(writer 태그: xssf, sxssf, sxssf-parallel)마다 작성 시간(excel.export)과 파일
+ * 크기(excel.export.size)를 기록한다.
  */
 @Component
 public class ExcelExporter {
 
+    private final MeterRegistry meterRegistry;
+    private final int rowAccessWindowSize;
+    private final int sheetParallelism;
+
+    public ExcelExporter(MeterRegistry meterRegistry,
+        @Value("${excel.stream.row-access-window-size:100}") int rowAccessWindowSize,
+        @Value("${excel.sheet.parallelism:4}") int sheetParallelism) {
+        this.meterRegistry = meterRegistry;
+        this.rowAccessWindowSize = rowAccessWindowSize;
+        this.sheetParallelism = sheetParallelism;
+    }
+
     public <T extends ExcelExportable> byte[] generateExcel(
         Map<String, List<T>> sheetData,
         String[] headers) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try (Workbook workbook = new XSSFWorkbook();
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
             sheetData.forEach(
-                (sheetName, items) -> createSheet(workbook, sheetName, items, headers));
+                (sheetName, items) -> createSheet(workbook, styles, sheetName, items, headers));
             workbook.write(outputStream);
-            return outputStream.toByteArray();
+            byte[] excel = outputStream.toByteArray();
+            record(sample, "xssf", excel.length);
+            return excel;
         } catch (IOException e) {
             return new byte[0];
         }
     }
 
-    private <T extends ExcelExportable> void createSheet(Workbook workbook, String sheetName,
-        List<T> items, String[] headers) {
+    /**
+     * SXSSFWorkbook: 행을 rowAccessWindowSize 개수만큼만 메모리에 유지하고, 나머지는 임시 파일로 내보낸다. 행 개수와 상관없이 힙
+     * 사용량이 일정하게 유지된다.
+     * <p>
+     * dispose(): SXSSFWorkbook이 사용한 임시 파일을 삭제한다.
+     * <p>
+     * POI는 블로킹 I/O이므로 이벤트 루프가 아닌 스레드에서 호출해야 한다.
+     */
+    public <T extends ExcelExportable> void writeExcel(
+        Map<String, List<T>> sheetData,
+        String[] headers,
+        OutputStream outputStream) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CountingOutputStream counting = new CountingOutputStream(outputStream);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize);
+        try (workbook) {
+            ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+            sheetData.forEach(
+                (sheetName, items) -> createSheet(workbook, styles, sheetName, items, headers));
+            workbook.write(counting);
+            record(sample, "sxssf", counting.count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * 카페(시트)마다 행을 채우는 작업을 동시에 실행한 뒤, 워크북을 outputStream에 기록한다.
+     * <ul>
+     *     <li>시트 생성: 워크북의 시트 목록을 바꾸므로 시트를 채우기 전에 모두 만든다.</li>
+     *     <li>flatMap(mapper, sheetParallelism): 최대 sheetParallelism개 시트를 boundedElastic 스레드에서
+     *     동시에 채운다. SXSSFSheet는 시트마다 자신의 임시 파일에 행을 XML로 기록하므로, 다른 시트와 공유하는 상태가 없다.</li>
+     *     <li>then(): 모든 시트가 끝난 뒤 한 스레드에서 워크북(zip)을 조립해 기록한다.</li>
+     * </ul>
+     * 시트를 채우는 동안 스타일은 ExcelStyleRegistry에서 읽기만 하므로, 스타일은 시트를 채우기 전에 모두 등록해야 한다.
+     * <p>
+     * usingWhen(): 성공, 실패, 취소 모두 워크북이 사용한 임시 파일을 삭제한다.
+     */
+    public <T extends ExcelExportable> Mono<Void> writeExcelParallel(
+        Map<String, List<T>> sheetData,
+        String[] headers,
+        OutputStream outputStream) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            CountingOutputStream counting = new CountingOutputStream(outputStream);
+            return Mono.<Void, SXSSFWorkbook>usingWhen(
+                    Mono.fromCallable(() -> new SXSSFWorkbook(rowAccessWindowSize)),
+                    workbook -> fillSheets(workbook, sheetData, headers)
+                        .then(Mono.fromRunnable(() -> write(workbook, counting))),
+                    workbook -> Mono.fromRunnable(() -> close(workbook)),
+                    (workbook, e) -> Mono.fromRunnable(() -> close(workbook)),
+                    workbook -> Mono.fromRunnable(() -> close(workbook)))
+                .doOnSuccess(done -> record(sample, "sxssf-parallel", counting.count));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private <T extends ExcelExportable> Mono<Void> fillSheets(SXSSFWorkbook workbook,
+        Map<String, List<T>> sheetData, String[] headers) {
+        ExcelStyleRegistry styles = new ExcelStyleRegistry(workbook);
+        Map<SXSSFSheet, List<T>> sheets = new LinkedHashMap<>();
+        sheetData.forEach((sheetName, items) -> {
+            SXSSFSheet sheet = workbook.createSheet(sheetName);
+            createHeader(sheet, headers);
+            sheets.put(sheet, items);
+        });
+        return Flux.fromIterable(sheets.entrySet())
+            .flatMap(sheet -> Mono.fromRunnable(() -> fillSheet(sheet.getKey(), styles,
+                    sheet.getValue())).subscribeOn(Schedulers.boundedElastic()),
+                sheetParallelism)
+            .then();
+    }
+
+    /**
+     * flushRows(): 메모리에 남은 행까지 임시 파일에 기록해 XML 변환을 이 스레드에서 끝낸다.
+     */
+    private <T extends ExcelExportable> void fillSheet(SXSSFSheet sheet,
+        ExcelStyleRegistry styles, List<T> items) {
+        int rowIndex = 1;
+        for (T item : items) {
+            Row row = sheet.createRow(rowIndex++);
+            item.writeRow(row, styles);
+        }
+        try {
+            sheet.flushRows();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(SXSSFWorkbook workbook, OutputStream outputStream) {
+        try {
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * dispose(): SXSSFWorkbook이 사용한 임시 파일을 삭제한다.
+     */
+    private void close(SXSSFWorkbook workbook) {
+        workbook.dispose();
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 모든 시트가 같은 ExcelStyleRegistry를 공유하므로, 행 개수와 상관없이 스타일 개수는 일정하다.
+     */
+    private <T extends ExcelExportable> void createSheet(Workbook workbook,
+        ExcelStyleRegistry styles, String sheetName, List<T> items, String[] headers) {
         Sheet sheet = workbook.createSheet(sheetName);
         createHeader(sheet, headers);
 
         int rowIndex = 1;
         for (T item : items) {
             Row row = sheet.createRow(rowIndex++);
-            item.writeRow(row);
+            item.writeRow(row, styles);
         }
     }
 
@@ -51,4 +198,38 @@ public class ExcelExporter {
             cell.setCellValue(headers[i]);
         }
     }
+
+    private void record(Timer.Sample sample, String writer, long bytes) {
+        sample.stop(meterRegistry.timer("excel.export", "writer", writer));
+        DistributionSummary.builder("excel.export.size")
+            .baseUnit("bytes")
+            .tag("writer", writer)
+            .register(meterRegistry)
+            .record(bytes);
+    }
+
+    /**
+     * 기록한 byte 수를 센다. FilterOutputStream의 write(byte[], int, int)는 write(int)를 한 byte씩
+     * 호출하므로, 배열을 그대로 out에 넘기도록 재정의한다.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.limhm.enemy.sugar.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * WebClientProvider가 만드는 HttpClient와 커넥션 풀 설정
+ * <p>
+ * hosts에 호스트별 커넥션 풀 설정을 지정하면 baseUrl이 그 호스트인 WebClient는 pool 대신 전용 풀을 사용한다.
+ * <p>
+ * 예) cafe.web-client.hosts[mo.twosome.co.kr].max-connections=16
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cafe.web-client")
+public class WebClientProperties {
+
+    private Pool pool = new Pool();
+    private Map<String, Pool> hosts = new HashMap<>();
+    private Duration connectTimeout = Duration.ofSeconds(3);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    /**
+     * true이면 Accept-Encoding: gzip 헤더를 보내고 압축된 응답을 풀어서 전달한다.
+     */
+    private boolean compression = true;
+
+    /**
+     * bodyToMono(String.class)처럼 응답을 메모리에 모을 때 허용하는 최대 크기
+     */
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+
+    /**
+     * 0이면 리액터 네티의 기본 이벤트 루프를 공유한다.
+     */
+    private int eventLoopThreads = 0;
+
+    /**
+     * maxConnections: 최대 커넥션 수
+     * <p>
+     * pendingAcquireMaxCount, pendingAcquireTimeout: 커넥션을 기다릴 수 있는 요청 수와 대기 시간
+     * <p>
+     * maxIdleTime, maxLifeTime, evictionInterval: 유휴 커넥션과 오래된 커넥션을 evictionInterval마다 정리한다.
+     */
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 500;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictionInterval = Duration.ofSeconds(30);
+    }
+}
@@ -1,27 +1,151 @@
 package com.limhm.enemy.sugar.config;
 
+import com.limhm.enemy.sugar.client.FetchMetrics;
+import com.limhm.enemy.sugar.client.FetchScheduler;
+import com.limhm.enemy.sugar.client.ResilienceFilter;
+import com.limhm.enemy.sugar.client.SingleFlightFilter;
+import com.limhm.enemy.sugar.config.WebClientProperties.Pool;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.ConnectionProvider.ConnectionPoolSpec;
+import reactor.netty.resources.LoopResources;
 
+/**
+ * 모든 팩토리의 WebClient가 하나의 커넥션 풀(ConnectionProvider)과 이벤트 루프를 공유한다. 커넥션은 keep-alive로 재사용한다.
+ * <p>
+ * hosts에 지정한 호스트의 WebClient는 그 호스트 전용 커넥션 풀을 사용한다.
+ */
 @Component
 public class WebClientProvider {
 
+    private final FetchScheduler fetchScheduler;
+    private final ResilienceFilter resilienceFilter;
+    private final FetchMetrics fetchMetrics;
+    private final SingleFlightFilter singleFlightFilter;
+    private final WebClientProperties properties;
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+    private final ClientHttpConnector connector;
+    private final Map<String, ConnectionProvider> hostConnectionProviders =
+        new ConcurrentHashMap<>();
+    private final Map<String, ClientHttpConnector> hostConnectors = new ConcurrentHashMap<>();
+    private final ExchangeStrategies exchangeStrategies;
+
+    public WebClientProvider(FetchScheduler fetchScheduler, ResilienceFilter resilienceFilter,
+        FetchMetrics fetchMetrics, SingleFlightFilter singleFlightFilter,
+        WebClientProperties properties) {
+        this.fetchScheduler = fetchScheduler;
+        this.resilienceFilter = resilienceFilter;
+        this.fetchMetrics = fetchMetrics;
+        this.singleFlightFilter = singleFlightFilter;
+        this.properties = properties;
+        this.connectionProvider = createConnectionProvider("cafe-crawler", properties.getPool());
+        this.loopResources = properties.getEventLoopThreads() > 0
+            ? LoopResources.create("cafe-client", properties.getEventLoopThreads(), true) : null;
+        this.connector = new ReactorClientHttpConnector(createHttpClient(connectionProvider));
+        this.exchangeStrategies = ExchangeStrategies.builder().codecs(configurer -> configurer
+                .defaultCodecs().maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
+            .build();
+    }
+
     /**
      * 오버로딩(Overloading)
      */
-    public static WebClient provideWebClient(String baseUrl) {
+    public WebClient provideWebClient(String baseUrl) {
         return provideWebClient(baseUrl, "");
     }
 
     /**
-     * static으로 지정된 객체들을 먼저 메모리에 할당한다.
+     * 모든 요청은 FetchScheduler를 거쳐 호스트별 동시 실행 수와 속도 제한을 따른다.
+     * <p>
+     * filter(): 먼저 등록한 필터가 바깥에서 실행된다. SingleFlightFilter가 합친 요청은 한 번만 보내고, ResilienceFilter가
+     * 재시도하는 요청도 FetchScheduler를 다시 거치고, FetchMetrics는 대기열을 빠져나와 실제로 보낸 요청만 기록한다.
      */
-    public static WebClient provideWebClient(String baseUrl, String headerType) {
-        WebClient.Builder builder = WebClient.builder().baseUrl(baseUrl);
+    public WebClient provideWebClient(String baseUrl, String headerType) {
+        WebClient.Builder builder = WebClient.builder().baseUrl(baseUrl)
+            .clientConnector(connector(baseUrl))
+            .exchangeStrategies(exchangeStrategies)
+            .filter(singleFlightFilter.filter())
+            .filter(resilienceFilter.filter())
+            .filter(fetchScheduler.filter())
+            .filter(fetchMetrics.filter());
         if (!headerType.isEmpty()) {
             builder.defaultHeader(HttpHeaders.CONTENT_TYPE, headerType);
         }
         return builder.build();
     }
+
+    /**
+     * baseUrl의 호스트가 hosts에 있으면 그 호스트 전용 풀을 처음 요청할 때 만든다. 풀이 주소(호스트와 포트)를 직접 정하지
+     * 않으므로, 커넥션은 baseUrl에 적힌 포트(생략하면 스킴의 기본 포트)로 연결된다.
+     * <p>
+     * baseUrl이 비어 있으면(요청마다 전체 URL을 지정하는 경우) 공용 풀을 사용한다.
+     */
+    private ClientHttpConnector connector(String baseUrl) {
+        String host = baseUrl.isEmpty() ? null : URI.create(baseUrl).getHost();
+        Pool pool = host == null ? null : properties.getHosts().get(host);
+        if (pool == null) {
+            return connector;
+        }
+        return hostConnectors.computeIfAbsent(host, key -> {
+            ConnectionProvider provider = createConnectionProvider("cafe-crawler-" + key, pool);
+            hostConnectionProviders.put(key, provider);
+            return new ReactorClientHttpConnector(createHttpClient(provider));
+        });
+    }
+
+    private static ConnectionProvider createConnectionProvider(String name, Pool pool) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name);
+        applyPool(builder, pool);
+        return builder.build();
+    }
+
+    private static void applyPool(ConnectionPoolSpec<?> spec, Pool pool) {
+        spec.maxConnections(pool.getMaxConnections())
+            .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+            .maxIdleTime(pool.getMaxIdleTime())
+            .maxLifeTime(pool.getMaxLifeTime())
+            .evictInBackground(pool.getEvictionInterval());
+    }
+
+    /**
+     * compress(true): Accept-Encoding: gzip 헤더를 보내고 응답의 압축을 해제한다.
+     * <p>
+     * responseTimeout(): 요청을 보낸 후 응답을 받기까지의 최대 시간, ReadTimeoutHandler: 응답을 읽는 도중 데이터가 오지 않는 최대 시간
+     */
+    private HttpClient createHttpClient(ConnectionProvider provider) {
+        HttpClient httpClient = HttpClient.create(provider)
+            .keepAlive(true)
+            .compress(properties.isCompression())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                (int) properties.getConnectTimeout().toMillis())
+            .responseTimeout(properties.getResponseTimeout())
+            .doOnConnected(connection -> connection.addHandlerLast(
+                new ReadTimeoutHandler(properties.getReadTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS)));
+        return loopResources == null ? httpClient : httpClient.runOn(loopResources);
+    }
+
+    @PreDestroy
+    public void dispose() {
+        connectionProvider.dispose();
+        hostConnectionProviders.values().forEach(ConnectionProvider::dispose);
+        if (loopResources != null) {
+            loopResources.dispose();
+        }
+    }
 }
@@ -1,25 +1,29 @@
 package com.limhm.enemy.sugar.controller;
 
-import com.limhm.enemy.sugar.common.ExcelExporter;
+import com.limhm.enemy.sugar.cache.ExportArtifactCache;
+import com.limhm.enemy.sugar.cache.MenuSnapshotCache;
 import com.limhm.enemy.sugar.domain.Beverage;
-import com.limhm.enemy.sugar.exception.ConnectionException;
-import com.limhm.enemy.sugar.factory.CafeComposeCoffeeFactory;
-import com.limhm.enemy.sugar.factory.CafeEdiyaFactory;
-import com.limhm.enemy.sugar.factory.CafeMegaCoffeeFactory;
-import com.limhm.enemy.sugar.factory.CafePaikDaBangFactory;
-import com.limhm.enemy.sugar.factory.CafeStarbucksFactory;
-import com.limhm.enemy.sugar.factory.CafeTwosomePlaceCoffeeFactory;
-import java.io.ByteArrayInputStream;
-import java.util.Arrays;
+import com.limhm.enemy.sugar.export.ExportFormat;
+import com.limhm.enemy.sugar.export.ExportFormats;
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import com.limhm.enemy.sugar.query.MenuIndexService;
+import com.limhm.enemy.sugar.query.MenuPage;
+import com.limhm.enemy.sugar.query.MenuQuery;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -31,45 +35,90 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class CafeController {
 
-    private final ExcelExporter excelExporter;
-    private final CafeStarbucksFactory starbucks;
-    private final CafeMegaCoffeeFactory megaCoffee;
-    private final CafeComposeCoffeeFactory composeCoffee;
-    private final CafePaikDaBangFactory paikDaBang;
-    private final CafeEdiyaFactory ediya;
-    private final CafeTwosomePlaceCoffeeFactory twosomePlace;
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final String UNAVAILABLE = " (조회 불가)";
+
+    private final ExportArtifactCache exportArtifactCache;
+    private final ExportFormats exportFormats;
+    private final ExportDelivery exportDelivery;
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final MenuIndexService menuIndexService;
+    private final List<CafeFactory> factories;
 
     /**
-     * collectList(): Flux에서 넘어오는 항목들을 하나의 리스트로 모은 Mono로 변환(Mono<List<T>>)한다.
-     * <p>
-     * merge(): 퍼블리셔의 순서와 상관없이 데이터가 발생할 때마다 Flux로 전달한다. concat()은 퍼블리셔의 순서대로 Flux로 전달한다.
+     * flatMapSequential(): 모든 카페를 동시에 조회하고, 결과는 factories 순서대로 전달한다. 시트 순서가 요청마다 같다.
      * <p>
-     * collectMap(): Flux에서 방출되는 모든 요소들을 Map에 담아 Mono로 반환(Mono<Map<K, V>>)한다.
+     * collectMap(keyMapper, valueMapper, mapSupplier): Flux에서 방출되는 모든 요소들을 Map에 담아 Mono로
+     * 반환(Mono<Map<K, V>>)한다. LinkedHashMap을 사용해 전달된 순서를 유지한다.
      * <p>
      * map(Function mapper): Mono에서 방출된 값을 인수 함수를 적용해 동기방식으로 변형한다. flatMap()과 비동기로 방출된 값을 변형한다.
+     * <p>
+     * 카페마다 MenuSnapshotCache.getMenuWithinDeadline()으로 조회하므로, 응답 시간은 가장 느린 카페가 아니라 deadline을
+     * 넘지 않는다.
+     * deadline을 넘기거나 실패한 카페는 마지막 스냅샷으로 채우고, 스냅샷도 없으면 "(조회 불가)"를 붙인 빈 시트로 응답한다.
+     * <p>
+     * 형식은 format 파라미터(xlsx, csv, arrow)로 지정하고, 없으면 Accept 헤더로 고른다. 둘 다 없으면 엑셀로 응답한다.
+     * 지원하지 않는 format은 400 Bad Request, Accept에 맞는 형식이 없으면 406 Not Acceptable로 응답한다.
+     * <p>
+     * 파일은 ExportArtifactCache가 스냅샷과 형식마다 한 번만 작성한 임시 파일을 FileSystemResource로 응답하므로, 파일 내용이 힙을
+     * 거치지 않고 전송(zero-copy)된다. 압축, ETag, Range 요청은 ExportDelivery를 참고한다.
+     * <p>
+     * ETag는 스냅샷의 해시와 형식이다. If-None-Match가 같으면 본문 없이 304 Not Modified로 응답한다.
      */
-    @GetMapping(value = "/menu/down", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public Mono<ResponseEntity<InputStreamResource>> downloadMenu() {
-        List<Mono<List<Beverage>>> allCafeMenuMono = Arrays.asList(
-            starbucks.createBeverage().collectList()
-            , megaCoffee.createBeverage().collectList()
-            , composeCoffee.createBeverage().collectList()
-            , paikDaBang.createBeverage().collectList()
-            , ediya.createBeverage().collectList()
-            , twosomePlace.createBeverage().collectList()
-        );
+    @GetMapping("/menu/down")
+    public Mono<ResponseEntity<Resource>> downloadMenu(
+        @RequestParam(required = false) String format, ServerWebExchange exchange) {
+        ExportFormat exportFormat;
+        try {
+            List<MediaType> accept = exchange.getRequest().getHeaders().getAccept();
+            exportFormat = format != null ? exportFormats.find(format)
+                : exportFormats.negotiate(accept).orElse(null);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+        }
+        if (exportFormat == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE));
+        }
 
-        return Flux.merge(allCafeMenuMono).collectMap(menu -> menu.get(0).getCompany().getKorName())
-            .map(allCafeMenu -> {
-                String[] header = {"이름", "칼로리", "포화지방", "당류", "나트륨", "단백질", "카페인"};
-                byte[] excelBytes = excelExporter.generateExcel(allCafeMenu, header);
-                InputStreamResource resource = new InputStreamResource(
-                    new ByteArrayInputStream(excelBytes));
-                HttpHeaders headers = new HttpHeaders();
-                headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=menu.xlsx");
+        return Flux.fromIterable(factories)
+            .flatMapSequential(factory -> {
+                String cafeName = factory.getCompany().getKorName();
+                return menuSnapshotCache.getMenuWithinDeadline(factory)
+                    .map(menu -> Map.entry(cafeName, menu))
+                    .onErrorResume(e -> Mono.just(Map.entry(cafeName + UNAVAILABLE, List.of())));
+            })
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue,
+                () -> new LinkedHashMap<String, List<Beverage>>())
+            .flatMap(allCafeMenu -> exportArtifactCache.get(allCafeMenu, exportFormat))
+            .map(artifact -> exportDelivery.respond(artifact, exchange));
+    }
+
+    /**
+     * 영양 성분 범위와 카페로 메뉴를 걸러 정렬한 한 페이지를 반환한다. 조회 조건은 MenuQuery를 참고한다.
+     * <p>
+     * Accept에 따라 JSON 배열, NDJSON(application/x-ndjson), SSE(text/event-stream)로 응답한다. 다음 페이지가 있으면
+     * X-Next-Cursor 헤더에 커서를 담는다.
+     */
+    @GetMapping(value = "/menu", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Mono<ResponseEntity<Flux<Beverage>>> findMenu(
+        @RequestParam MultiValueMap<String, String> params) {
+        MenuQuery query;
+        try {
+            query = MenuQuery.from(params);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+        }
 
-                return ResponseEntity.ok().headers(headers)
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM).body(resource);
-            }).onErrorResume(e -> Mono.error(new ConnectionException("test", e)));
+        return menuIndexService.index().map(index -> {
+            MenuPage page = index.query(query);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR, page.getNextCursor());
+            }
+            return response.body(Flux.fromIterable(page.getItems()));
+        });
     }
 }
@@ -0,0 +1,40 @@
+package com.limhm.enemy.sugar.controller;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 핸들러가 onComplete()로 등록한 작업을 응답이 끝난 후에 실행한다. 예) 응답한 파일의 참조를 돌려줄 때
+ * <p>
+ * chain.filter()는 핸들러가 반환한 본문을 모두 쓴 후에 끝난다. doFinally(): 본문을 다 보냈거나, 실패했거나, 클라이언트가 연결을
+ * 끊어 취소되어도 한 번 실행된다.
+ * <p>
+ * 모든 요청이 이 필터를 거치지만 작업을 등록하는 요청은 파일 다운로드뿐이므로, 작업 목록은 처음 등록할 때 만든다.
+ */
+@Component
+public class ExchangeCompletionFilter implements WebFilter {
+
+    private static final String CALLBACKS = ExchangeCompletionFilter.class.getName() + ".CALLBACKS";
+
+    @SuppressWarnings("unchecked")
+    public static void onComplete(ServerWebExchange exchange, Runnable callback) {
+        List<Runnable> callbacks = (List<Runnable>) exchange.getAttributes()
+            .computeIfAbsent(CALLBACKS, key -> new CopyOnWriteArrayList<Runnable>());
+        callbacks.add(callback);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return chain.filter(exchange).doFinally(signal -> {
+            List<Runnable> callbacks = exchange.getAttribute(CALLBACKS);
+            if (callbacks != null) {
+                callbacks.forEach(Runnable::run);
+            }
+        });
+    }
+}
@@ -0,0 +1,145 @@
+package com.limhm.enemy.sugar.controller;
+
+import com.limhm.enemy.sugar.cache.ExportArtifact;
+import com.limhm.enemy.sugar.export.ExportFormat;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * 미리 작성한 메뉴 파일(ExportArtifact)을 응답으로 만든다.
+ * <ul>
+ *     <li>Accept-Encoding이 gzip을 허용하고 gzip 파일이 있으면 압축된 파일을 그대로 보낸다. 요청마다 압축하지 않는다.</li>
+ *     <li>Content-Length는 파일 크기, ETag는 버전(gzip이면 버전.gz)이다. 표현마다 바이트가 다르므로 ETag도
+ *     다르다(strong ETag).</li>
+ *     <li>Range 요청은 ResourceHttpMessageWriter가 파일의 해당 구간만 206 Partial Content로 보낸다. 끊긴 다운로드를
+ *     이어받을 수 있다. 파일 길이를 넘는 구간은 416 Range Not Satisfiable로 응답한다.</li>
+ *     <li>If-Range: 이어받을 때 받아 둔 부분의 ETag를 함께 보낸다. 그 사이 스냅샷이 바뀌었으면 다른 파일의 구간이 이어 붙지 않도록
+ *     Range를 무시하고 전체 파일을 보낸다.</li>
+ *     <li>ExportArtifactCache가 참조(acquire())를 얻어 둔 파일을 받는다. 본문을 다 보내면 참조를 돌려주므로, 그 사이 캐시에서
+ *     밀려나도 파일은 응답이 끝난 후에 삭제된다.</li>
+ * </ul>
+ * Brotli는 순수 자바 인코더가 없어(JDK에는 디코더도 없다) 네이티브 라이브러리 없이 만들 수 없으므로 지원하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportDelivery {
+
+    private static final String GZIP = "gzip";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Vary: 같은 URL이라도 Accept(형식)와 Accept-Encoding(압축)에 따라 본문이 다르다는 것을 캐시에 알린다. 압축하지 않는 형식은
+     * Accept-Encoding과 상관없이 같은 본문이다.
+     * <p>
+     * export.download.requests: 형식과 압축별 다운로드 요청 수
+     */
+    public ResponseEntity<Resource> respond(ExportArtifact artifact,
+        ServerWebExchange exchange) {
+        ExchangeCompletionFilter.onComplete(exchange, artifact::release);
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        ExportFormat format = artifact.getFormat();
+        boolean gzip = artifact.hasGzip() && acceptsGzip(requestHeaders);
+        meterRegistry.counter("export.download.requests", "format", format.getName(),
+            "encoding", gzip ? GZIP : "identity").increment();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=menu." + format.getFileExtension());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (format.isCompressible()) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        headers.setETag('"' + artifact.getVersion() + (gzip ? ".gz" : "") + '"');
+        long contentLength = gzip ? artifact.getGzipContentLength() : artifact.getContentLength();
+        Resource resource = new FileSystemResource(
+            gzip ? artifact.getGzipPath() : artifact.getPath());
+
+        if (requestHeaders.containsKey(HttpHeaders.RANGE)) {
+            if (!ifRangeMatches(requestHeaders, headers.getETag())) {
+                RangeFilter.ignoreRange(exchange);
+            } else if (!satisfiable(requestHeaders, resource)) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .headers(headers).build();
+            }
+        }
+
+        return ResponseEntity.ok().headers(headers)
+            .contentType(format.getMediaType())
+            .contentLength(contentLength)
+            .body(resource);
+    }
+
+    /**
+     * If-Range가 없거나 ETag와 같으면 Range를 따른다. ETag는 strong 비교만 허용하고, 날짜로 보낸 If-Range는 Last-Modified를
+     * 보내지 않으므로 항상 다르다고 본다.
+     */
+    private static boolean ifRangeMatches(HttpHeaders requestHeaders, String eTag) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        return ifRange == null || (!ifRange.startsWith("W/") && ifRange.equals(eTag));
+    }
+
+    /**
+     * toResourceRegions(): 파일 길이를 넘는 구간이 있거나 Range 형식이 잘못되면 IllegalArgumentException을 던진다.
+     */
+    private static boolean satisfiable(HttpHeaders requestHeaders, Resource resource) {
+        try {
+            HttpRange.toResourceRegions(requestHeaders.getRange(), resource);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Accept-Encoding: gzip;q=1.0, br, *;q=0 처럼 쉼표로 구분한 압축 방식과 q 값을 읽는다. gzip(또는 x-gzip)이 있으면 그
+     * q 값을, 없으면 *의 q 값을 따른다. q=0은 허용하지 않는다는 뜻이다.
+     */
+    static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        Double gzip = null;
+        Double any = null;
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                double quality = quality(parts);
+                if (name.equals(GZIP) || name.equals("x-gzip")) {
+                    gzip = quality;
+                } else if (name.equals("*")) {
+                    any = quality;
+                }
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
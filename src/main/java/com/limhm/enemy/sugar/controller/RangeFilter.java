@@ -0,0 +1,47 @@
+package com.limhm.enemy.sugar.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 핸들러가 ignoreRange()를 호출하면, Range 요청이라도 200 OK로 전체 본문을 보낸다.
+ * <p>
+ * ResourceHttpMessageWriter는 본문을 쓸 때 요청의 Range 헤더만 보고 구간을 보낸다. 요청 헤더는 바꿀 수 없으므로, Range가 있는
+ * 요청은 헤더를 읽을 때마다 ignoreRange() 여부를 확인해 Range를 지우는 요청으로 감싼다. 예) If-Range가 현재 ETag와 다를 때
+ */
+@Component
+public class RangeFilter implements WebFilter {
+
+    private static final String IGNORE_RANGE = RangeFilter.class.getName() + ".IGNORE_RANGE";
+
+    public static void ignoreRange(ServerWebExchange exchange) {
+        exchange.getAttributes().put(IGNORE_RANGE, true);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public HttpHeaders getHeaders() {
+                HttpHeaders headers = super.getHeaders();
+                if (!exchange.getAttributeOrDefault(IGNORE_RANGE, false)) {
+                    return headers;
+                }
+                HttpHeaders withoutRange = new HttpHeaders();
+                withoutRange.putAll(headers);
+                withoutRange.remove(HttpHeaders.RANGE);
+                return HttpHeaders.readOnlyHttpHeaders(withoutRange);
+            }
+        };
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+}
@@ -8,4 +8,18 @@ import com.limhm.enemy.sugar.strategy.ExcelExportable;
 public interface Beverage extends ExcelExportable {
 
     Company getCompany();
+
+    String getName();
+
+    double getCalories();
+
+    double getSugar();
+
+    double getProtein();
+
+    double getSaturatedFat();
+
+    double getSodium();
+
+    double getCaffeine();
 }
@@ -2,12 +2,10 @@ package com.limhm.enemy.sugar.domain;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
-@Setter
 @AllArgsConstructor
 public class Cafe implements Company {
 
-    private String korName;
+    private final String korName;
 }
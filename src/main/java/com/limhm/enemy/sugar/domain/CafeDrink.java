@@ -1,23 +1,25 @@
 package com.limhm.enemy.sugar.domain;
 
+import com.limhm.enemy.sugar.strategy.ExcelStyleRegistry;
 import java.util.Optional;
 import lombok.Getter;
-import lombok.Setter;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Row;
 
+/**
+ * 생성 후 변경되지 않는다. MenuSnapshot의 메뉴는 복사하지 않고 여러 스레드가 그대로 공유한다.
+ */
 @Getter
-@Setter
 public class CafeDrink implements Beverage {
 
-    private Company company;
-    private String name;
-    private double calories;
-    private double sugar;
-    private double protein;
-    private double saturatedFat;
-    private double sodium;
-    private double caffeine;
+    private final Company company;
+    private final String name;
+    private final double calories;
+    private final double sugar;
+    private final double protein;
+    private final double saturatedFat;
+    private final double sodium;
+    private final double caffeine;
 
     public CafeDrink(Company company, String name, String calories, String sugar, String protein,
         String saturatedFat, String sodium, String caffeine) {
@@ -31,6 +33,21 @@ public class CafeDrink implements Beverage {
         this.caffeine = parseDouble(caffeine);
     }
 
+    /**
+     * 파싱한 값을 그대로 받는다. 크롤링 중에는 중간 String이나 Optional을 만들지 않도록 이 생성자를 사용한다.
+     */
+    public CafeDrink(Company company, String name, double calories, double sugar, double protein,
+        double saturatedFat, double sodium, double caffeine) {
+        this.company = company;
+        this.name = name;
+        this.calories = calories;
+        this.sugar = sugar;
+        this.protein = protein;
+        this.saturatedFat = saturatedFat;
+        this.sodium = sodium;
+        this.caffeine = caffeine;
+    }
+
     /**
      * Optional 클래스: (Wrapper class) NullPointerException 간단히 회피하기 위해 사용한다. of() 혹은 ofNullable()
      * 메소드를 사용해 Optional 객체를 생성한다.
@@ -46,10 +63,8 @@ public class CafeDrink implements Beverage {
     }
 
     @Override
-    public void writeRow(Row row) {
-        CellStyle numericStyle = row.getSheet().getWorkbook().createCellStyle();
-        numericStyle.setDataFormat(
-            row.getSheet().getWorkbook().getCreationHelper().createDataFormat().getFormat("0.0"));
+    public void writeRow(Row row, ExcelStyleRegistry styles) {
+        CellStyle numericStyle = styles.get(ExcelStyleRegistry.NUMERIC);
         createCell(row, 0, getName());
         createCellByStyle(row, 1, getCalories(), numericStyle);
         createCellByStyle(row, 2, getSaturatedFat(), numericStyle);
@@ -0,0 +1,33 @@
+package com.limhm.enemy.sugar.domain;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 음료의 영양 성분
+ * <p>
+ * paramName: 조회 API의 요청 파라미터 이름(minSugar, sort=sugar 등)에 사용한다.
+ */
+public enum Nutrient {
+    CALORIES("calories", Beverage::getCalories),
+    SUGAR("sugar", Beverage::getSugar),
+    PROTEIN("protein", Beverage::getProtein),
+    SATURATED_FAT("saturatedFat", Beverage::getSaturatedFat),
+    SODIUM("sodium", Beverage::getSodium),
+    CAFFEINE("caffeine", Beverage::getCaffeine);
+
+    private final String paramName;
+    private final ToDoubleFunction<Beverage> getter;
+
+    Nutrient(String paramName, ToDoubleFunction<Beverage> getter) {
+        this.paramName = paramName;
+        this.getter = getter;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public double getValue(Beverage beverage) {
+        return getter.applyAsDouble(beverage);
+    }
+}
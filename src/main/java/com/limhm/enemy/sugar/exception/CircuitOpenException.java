@@ -0,0 +1,11 @@
+package com.limhm.enemy.sugar.exception;
+
+/**
+ * 호스트의 회로 차단기가 열려 있어 요청을 보내지 않았다.
+ */
+public class CircuitOpenException extends ConnectionException {
+
+    public CircuitOpenException(String host) {
+        super(host + " 요청 차단: 연속 실패로 회로가 열려 있습니다.", null);
+    }
+}
@@ -0,0 +1,300 @@
+package com.limhm.enemy.sugar.export;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.Endianness;
+import org.apache.arrow.flatbuf.Field;
+import org.apache.arrow.flatbuf.FieldNode;
+import org.apache.arrow.flatbuf.FloatingPoint;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.MetadataVersion;
+import org.apache.arrow.flatbuf.Precision;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.flatbuf.Schema;
+import org.apache.arrow.flatbuf.Type;
+import org.apache.arrow.flatbuf.Utf8;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Apache Arrow IPC 스트림 형식. pyarrow(pa.ipc.open_stream), pandas, Polars, DuckDB 같은 분석 도구가
+ * 변환 없이 열(column) 단위로 읽는다. 숫자를 문자로 바꾸지 않으므로 CSV보다 작성과 읽기가 빠르고,
+ * 값이 정확히 보존된다.
+ * <p>
+ * 열은 cafe(utf8), name(utf8), Nutrient.paramName(float64)이며 null은 없다. 카페(시트)마다
+ * RecordBatch 하나를 기록하므로, 한 번에 한 카페의 메뉴만큼만 메모리를 사용한다.
+ * <p>
+ * 메시지의 메타데이터는 arrow-format의 FlatBuffers 클래스로 만들고, 본문은 직접 기록한다. Arrow Java의 벡터(arrow-vector)는
+ * 오프 힙 할당자와 --add-opens 옵션이 필요하므로 사용하지 않는다.
+ * <pre>
+ * 메시지    0xFFFFFFFF, 메타데이터 길이(int32), Message(FlatBuffers), 본문
+ * 스트림    Schema 메시지, 카페마다 RecordBatch 메시지, 0xFFFFFFFF 00000000(끝)
+ * </pre>
+ * 모든 정수와 실수는 little-endian이고, 메타데이터와 본문의 버퍼는 8 byte 단위로 정렬한다.
+ */
+@Component
+public class ArrowExportFormat implements ExportFormat {
+
+    private static final MediaType MEDIA_TYPE = new MediaType("application",
+        "vnd.apache.arrow.stream");
+    private static final Nutrient[] NUTRIENTS = Nutrient.values();
+    private static final int CONTINUATION = 0xFFFFFFFF;
+    private static final int ALIGNMENT = 8;
+
+    @Override
+    public String getName() {
+        return "arrow";
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "arrows";
+    }
+
+    @Override
+    public <T extends Beverage> Mono<Void> write(Map<String, List<T>> sheetData,
+        OutputStream outputStream) {
+        return Mono.fromRunnable(() -> {
+            try {
+                LittleEndianOutput output = new LittleEndianOutput(
+                    new BufferedOutputStream(outputStream));
+                writeMessage(output, schema());
+                for (Map.Entry<String, List<T>> sheet : sheetData.entrySet()) {
+                    writeBatch(output, sheet.getKey(), sheet.getValue());
+                }
+                output.writeInt(CONTINUATION);
+                output.writeInt(0);
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static ByteBuffer schema() {
+        FlatBufferBuilder builder = new FlatBufferBuilder(512);
+        int[] fields = new int[2 + NUTRIENTS.length];
+        fields[0] = utf8Field(builder, "cafe");
+        fields[1] = utf8Field(builder, "name");
+        for (int i = 0; i < NUTRIENTS.length; i++) {
+            fields[2 + i] = float64Field(builder, NUTRIENTS[i].getParamName());
+        }
+        int fieldsVector = Schema.createFieldsVector(builder, fields);
+        Schema.startSchema(builder);
+        Schema.addEndianness(builder, Endianness.Little);
+        Schema.addFields(builder, fieldsVector);
+        return message(builder, MessageHeader.Schema, Schema.endSchema(builder), 0);
+    }
+
+    private static int utf8Field(FlatBufferBuilder builder, String name) {
+        int nameOffset = builder.createString(name);
+        Utf8.startUtf8(builder);
+        int type = Utf8.endUtf8(builder);
+        return field(builder, nameOffset, Type.Utf8, type);
+    }
+
+    private static int float64Field(FlatBufferBuilder builder, String name) {
+        int nameOffset = builder.createString(name);
+        int type = FloatingPoint.createFloatingPoint(builder, Precision.DOUBLE);
+        return field(builder, nameOffset, Type.FloatingPoint, type);
+    }
+
+    private static int field(FlatBufferBuilder builder, int name, byte typeType, int type) {
+        int children = Field.createChildrenVector(builder, new int[0]);
+        Field.startField(builder);
+        Field.addName(builder, name);
+        Field.addNullable(builder, false);
+        Field.addTypeType(builder, typeType);
+        Field.addType(builder, type);
+        Field.addChildren(builder, children);
+        return Field.endField(builder);
+    }
+
+    private static ByteBuffer message(FlatBufferBuilder builder, byte headerType, int header,
+        long bodyLength) {
+        Message.startMessage(builder);
+        Message.addVersion(builder, MetadataVersion.V5);
+        Message.addHeaderType(builder, headerType);
+        Message.addHeader(builder, header);
+        Message.addBodyLength(builder, bodyLength);
+        builder.finish(Message.endMessage(builder));
+        return builder.dataBuffer();
+    }
+
+    /**
+     * 본문의 버퍼 순서: 열마다 validity(null이 없으므로 길이 0), utf8은 offsets(int32, 행 수 + 1개)와 data, float64는
+     * data(행 수 x 8 byte)
+     */
+    private <T extends Beverage> void writeBatch(LittleEndianOutput output, String cafe,
+        List<T> beverages) throws IOException {
+        int rows = beverages.size();
+        byte[] cafeBytes = cafe.getBytes(StandardCharsets.UTF_8);
+        byte[][] names = new byte[rows][];
+        long namesLength = 0;
+        for (int i = 0; i < rows; i++) {
+            names[i] = beverages.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            namesLength += names[i].length;
+        }
+
+        int columns = 2 + NUTRIENTS.length;
+        long offsetsLength = (rows + 1L) * Integer.BYTES;
+        long[] buffers = new long[(2 + 2 * columns) * 2];
+        int index = 0;
+        long bodyLength = 0;
+        for (long dataLength : new long[] {(long) cafeBytes.length * rows, namesLength}) {
+            buffers[index++] = bodyLength;
+            buffers[index++] = 0;
+            buffers[index++] = bodyLength;
+            buffers[index++] = offsetsLength;
+            bodyLength += align(offsetsLength);
+            buffers[index++] = bodyLength;
+            buffers[index++] = dataLength;
+            bodyLength += align(dataLength);
+        }
+        for (int i = 0; i < NUTRIENTS.length; i++) {
+            buffers[index++] = bodyLength;
+            buffers[index++] = 0;
+            buffers[index++] = bodyLength;
+            buffers[index++] = (long) rows * Double.BYTES;
+            bodyLength += align((long) rows * Double.BYTES);
+        }
+        writeMessage(output, recordBatch(rows, columns, buffers, index / 2, bodyLength));
+
+        int offset = 0;
+        for (int i = 0; i <= rows; i++) {
+            output.writeInt(offset);
+            offset += cafeBytes.length;
+        }
+        output.pad(offsetsLength);
+        for (int i = 0; i < rows; i++) {
+            output.write(cafeBytes);
+        }
+        output.pad((long) cafeBytes.length * rows);
+
+        offset = 0;
+        output.writeInt(offset);
+        for (byte[] name : names) {
+            offset += name.length;
+            output.writeInt(offset);
+        }
+        output.pad(offsetsLength);
+        for (byte[] name : names) {
+            output.write(name);
+        }
+        output.pad(namesLength);
+
+        for (Nutrient nutrient : NUTRIENTS) {
+            for (T beverage : beverages) {
+                output.writeDouble(nutrient.getValue(beverage));
+            }
+            output.pad((long) rows * Double.BYTES);
+        }
+    }
+
+    /**
+     * FlatBuffers의 struct 벡터는 뒤에서부터 채우므로 역순으로 추가한다.
+     */
+    private static ByteBuffer recordBatch(int rows, int columns, long[] buffers,
+        int bufferCount, long bodyLength) {
+        FlatBufferBuilder builder = new FlatBufferBuilder(512);
+        RecordBatch.startNodesVector(builder, columns);
+        for (int i = 0; i < columns; i++) {
+            FieldNode.createFieldNode(builder, rows, 0);
+        }
+        int nodes = builder.endVector();
+        RecordBatch.startBuffersVector(builder, bufferCount);
+        for (int i = bufferCount - 1; i >= 0; i--) {
+            Buffer.createBuffer(builder, buffers[i * 2], buffers[i * 2 + 1]);
+        }
+        int buffersVector = builder.endVector();
+        RecordBatch.startRecordBatch(builder);
+        RecordBatch.addLength(builder, rows);
+        RecordBatch.addNodes(builder, nodes);
+        RecordBatch.addBuffers(builder, buffersVector);
+        return message(builder, MessageHeader.RecordBatch,
+            RecordBatch.endRecordBatch(builder), bodyLength);
+    }
+
+    /**
+     * 메타데이터 길이에는 8 byte 정렬을 위한 padding이 포함된다. 앞의 continuation과 길이(8 byte)까지 합쳐 8의 배수가 된다.
+     */
+    private static void writeMessage(LittleEndianOutput output, ByteBuffer metadata)
+        throws IOException {
+        int length = metadata.remaining();
+        output.writeInt(CONTINUATION);
+        output.writeInt((int) align(length));
+        output.write(metadata);
+        output.pad(length);
+    }
+
+    private static long align(long length) {
+        return (length + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /**
+     * DataOutputStream은 big-endian이므로, 재사용하는 little-endian ByteBuffer에 값을 쓴 뒤 기록한다.
+     */
+    private static class LittleEndianOutput {
+
+        private static final byte[] ZEROS = new byte[ALIGNMENT];
+
+        private final OutputStream outputStream;
+        private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+
+        LittleEndianOutput(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        void writeInt(int value) throws IOException {
+            scratch.clear();
+            scratch.putInt(value);
+            outputStream.write(scratch.array(), 0, Integer.BYTES);
+        }
+
+        void writeDouble(double value) throws IOException {
+            scratch.clear();
+            scratch.putDouble(value);
+            outputStream.write(scratch.array(), 0, Double.BYTES);
+        }
+
+        void write(byte[] bytes) throws IOException {
+            outputStream.write(bytes);
+        }
+
+        void write(ByteBuffer buffer) throws IOException {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            outputStream.write(bytes);
+        }
+
+        /**
+         * length만큼 기록한 버퍼 뒤에 8 byte 단위가 되도록 0을 채운다.
+         */
+        void pad(long length) throws IOException {
+            outputStream.write(ZEROS, 0, (int) (align(length) - length));
+        }
+
+        void flush() throws IOException {
+            outputStream.flush();
+        }
+    }
+}
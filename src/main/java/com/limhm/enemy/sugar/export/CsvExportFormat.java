@@ -0,0 +1,75 @@
+package com.limhm.enemy.sugar.export;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 모든 카페의 메뉴를 한 표로 모은 CSV. 분석 작업에서 읽기 쉽도록 열 이름은 영문(cafe, name, Nutrient.paramName)이다.
+ * <p>
+ * 행을 하나씩 CsvWriter에 바로 기록하므로, 메뉴 수와 상관없이 버퍼 크기만큼의 메모리만 사용한다.
+ */
+@Component
+public class CsvExportFormat implements ExportFormat {
+
+    private static final MediaType MEDIA_TYPE = new MediaType("text", "csv",
+        StandardCharsets.UTF_8);
+    private static final Nutrient[] NUTRIENTS = Nutrient.values();
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "csv";
+    }
+
+    @Override
+    public <T extends Beverage> Mono<Void> write(Map<String, List<T>> sheetData,
+        OutputStream outputStream) {
+        return Mono.fromRunnable(() -> {
+            try {
+                writeCsv(sheetData, new CsvWriter(outputStream));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private <T extends Beverage> void writeCsv(Map<String, List<T>> sheetData,
+        CsvWriter writer) throws IOException {
+        writer.field("cafe");
+        writer.field("name");
+        for (Nutrient nutrient : NUTRIENTS) {
+            writer.field(nutrient.getParamName());
+        }
+        writer.endRow();
+
+        for (Map.Entry<String, List<T>> sheet : sheetData.entrySet()) {
+            for (T beverage : sheet.getValue()) {
+                writer.field(sheet.getKey());
+                writer.field(beverage.getName());
+                for (Nutrient nutrient : NUTRIENTS) {
+                    writer.field(nutrient.getValue(beverage));
+                }
+                writer.endRow();
+            }
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,186 @@
+package com.limhm.enemy.sugar.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 형식으로 필드를 기록한다. 쉼표, 큰따옴표, 줄바꿈이 있는 필드는 큰따옴표로 감싸고, 큰따옴표는 두 번 쓴다.
+ * <p>
+ * 필드를 String이나 byte[]로 만들지 않는다. 문자는 재사용하는 CharBuffer에 바로 넣고, 가득 차면 재사용하는 ByteBuffer로
+ * UTF-8 인코딩해 기록한다. 숫자도 자릿수를 직접 CharBuffer에 쓴다. 소수점 아래 MAX_FRACTION_DIGITS자리로 정확히 나타낼 수
+ * 없는 값만 재사용하는 StringBuilder에 append(double)로 쓴다. 예) 0.1 + 0.2
+ */
+class CsvWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L,
+        1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L};
+    private static final double MAX_EXACT_LONG = 0x1p53;
+
+    private final OutputStream outputStream;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer bytes = ByteBuffer.allocate(
+        (int) (BUFFER_SIZE * encoder.maxBytesPerChar()));
+    private final StringBuilder number = new StringBuilder(32);
+    private final char[] digits = new char[20];
+    private boolean firstField = true;
+
+    CsvWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    void field(String value) throws IOException {
+        separate();
+        if (!needsQuote(value)) {
+            for (int i = 0; i < value.length(); i++) {
+                put(value.charAt(i));
+            }
+            return;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+    }
+
+    /**
+     * 소수점 아래가 없는 값은 정수로 쓴다. 예) 120.0 -> 120, 3.5 -> 3.5
+     * <p>
+     * 소수는 가장 적은 소수점 아래 자릿수(scale)를 찾는다. value × 10^scale을 반올림한 정수(unscaled)를 10^scale로 나눈 값이
+     * value와 같으면, 두 수 모두 2^53 미만이라 나눗셈이 정확히 반올림되므로 "unscaled / 10^scale"을 10진수로 읽어도 value가
+     * 된다.
+     */
+    void field(double value) throws IOException {
+        separate();
+        if (value == (long) value) {
+            putLong((long) value);
+            return;
+        }
+        if (Double.isFinite(value)) {
+            for (int scale = 1; scale <= MAX_FRACTION_DIGITS; scale++) {
+                double scaled = value * POWERS_OF_TEN[scale];
+                if (Math.abs(scaled) >= MAX_EXACT_LONG) {
+                    break;
+                }
+                long unscaled = Math.round(scaled);
+                if ((double) unscaled / POWERS_OF_TEN[scale] == value) {
+                    putDecimal(unscaled, scale);
+                    return;
+                }
+            }
+        }
+        number.setLength(0);
+        number.append(value);
+        for (int i = 0; i < number.length(); i++) {
+            put(number.charAt(i));
+        }
+    }
+
+    /**
+     * 뒤에서부터 자릿수를 채운다. Long.MIN_VALUE는 부호를 바꿀 수 없으므로 음수인 채로 나머지를 구한다.
+     */
+    private void putLong(long value) throws IOException {
+        int position = digits.length;
+        long remaining = value;
+        do {
+            digits[--position] = (char) ('0' + Math.abs(remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            put('-');
+        }
+        for (int i = position; i < digits.length; i++) {
+            put(digits[i]);
+        }
+    }
+
+    /**
+     * 정수부를 쓰고, 소수부는 scale자리가 되도록 앞에 0을 채운다. 예) unscaled = -5, scale = 2 -> -0.05
+     */
+    private void putDecimal(long unscaled, int scale) throws IOException {
+        if (unscaled < 0) {
+            put('-');
+        }
+        long magnitude = Math.abs(unscaled);
+        putLong(magnitude / POWERS_OF_TEN[scale]);
+        put('.');
+        long fraction = magnitude % POWERS_OF_TEN[scale];
+        for (int digit = scale - 1; digit >= 0; digit--) {
+            put((char) ('0' + fraction / POWERS_OF_TEN[digit] % 10));
+        }
+    }
+
+    void endRow() throws IOException {
+        put('\r');
+        put('\n');
+        firstField = true;
+    }
+
+    /**
+     * 버퍼에 남은 문자를 모두 기록한다. outputStream은 닫지 않는다.
+     */
+    void flush() throws IOException {
+        drain(true);
+        encoder.flush(bytes);
+        writeBytes();
+        outputStream.flush();
+    }
+
+    private void separate() throws IOException {
+        if (!firstField) {
+            put(',');
+        }
+        firstField = false;
+    }
+
+    private static boolean needsQuote(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            drain(false);
+        }
+        chars.put(c);
+    }
+
+    /**
+     * bytes는 chars 전체를 인코딩할 수 있는 크기이므로 한 번에 인코딩된다. 서로게이트 쌍이 버퍼 경계에서 나뉘면
+     * compact()로 남겨 다음 인코딩에 이어 붙인다.
+     */
+    private void drain(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result = encoder.encode(chars, bytes, endOfInput);
+        if (result.isOverflow()) {
+            throw new IllegalStateException("CSV 인코딩 버퍼가 부족합니다.");
+        }
+        chars.compact();
+        writeBytes();
+    }
+
+    private void writeBytes() throws IOException {
+        outputStream.write(bytes.array(), 0, bytes.position());
+        bytes.clear();
+    }
+}
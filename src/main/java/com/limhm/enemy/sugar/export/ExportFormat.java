@@ -0,0 +1,41 @@
+package com.limhm.enemy.sugar.export;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+
+/**
+ * 메뉴를 파일로 내보내는 형식 - 전략 인터페이스
+ * <p>
+ * ExportArtifactCache(콘텍스트)는 형식을 알지 못하고, 요청에서 고른 ExportFormat에 작성을 위임한다. 새 형식은 이 인터페이스를
+ * 구현한 @Component를 추가하면 ExportFormats에 등록된다.
+ */
+public interface ExportFormat {
+
+    /**
+     * 요청 파라미터(format=csv)와 파일 이름에 사용한다.
+     */
+    String getName();
+
+    MediaType getMediaType();
+
+    String getFileExtension();
+
+    /**
+     * false이면 gzip으로 미리 압축한 파일을 만들지 않는다. 이미 압축된 형식(xlsx는 zip 파일이다)은 다시 압축해도 작아지지 않는다.
+     */
+    default boolean isCompressible() {
+        return true;
+    }
+
+    /**
+     * sheetData의 키는 카페(시트) 이름이다. 모든 형식이 같은 sheetData로 작성하므로, 같은 스냅샷이면 형식과 상관없이 내용이 같다.
+     * <p>
+     * 블로킹 I/O이므로 이벤트 루프가 아닌 스레드에서 구독해야 한다. outputStream은 호출한 쪽이 닫는다.
+     */
+    <T extends Beverage> Mono<Void> write(Map<String, List<T>> sheetData,
+        OutputStream outputStream);
+}
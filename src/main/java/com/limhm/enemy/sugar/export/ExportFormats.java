@@ -0,0 +1,67 @@
+package com.limhm.enemy.sugar.export;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * 등록된 ExportFormat 중에서 요청에 맞는 형식을 고른다. 형식을 지정하지 않으면 엑셀(xlsx)로 응답한다.
+ */
+@Component
+public class ExportFormats {
+
+    private final Map<String, ExportFormat> formats = new LinkedHashMap<>();
+    private final ExportFormat defaultFormat;
+
+    public ExportFormats(List<ExportFormat> formats) {
+        formats.forEach(format -> this.formats.put(format.getName(), format));
+        this.defaultFormat = this.formats.get(XlsxExportFormat.NAME);
+    }
+
+    /**
+     * 요청 파라미터로 지정한 형식. 예) format=csv
+     */
+    public ExportFormat find(String name) {
+        ExportFormat format = formats.get(name);
+        if (format == null) {
+            throw new IllegalArgumentException(
+                "지원하지 않는 형식입니다: " + name + " (" + String.join(", ", formats.keySet()) + ")");
+        }
+        return format;
+    }
+
+    /**
+     * Accept 헤더에서 가장 우선하는 미디어 타입부터 맞는 형식을 찾는다. 맞는 형식이 없으면 빈 Optional을 반환한다.
+     * <p>
+     * sortBySpecificity(): q 값이 높은 순서, 같으면 구체적인(와일드카드가 적은) 순서로 정렬한다.
+     * <p>
+     * 이전에는 application/octet-stream으로만 응답했으므로, 이 타입을 요청하면 기본 형식으로 응답한다.
+     */
+    public Optional<ExportFormat> negotiate(List<MediaType> accept) {
+        if (accept.isEmpty()) {
+            return Optional.of(defaultFormat);
+        }
+        List<MediaType> mediaTypes = new ArrayList<>(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.includes(defaultFormat.getMediaType())
+                || mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_OCTET_STREAM)) {
+                return Optional.of(defaultFormat);
+            }
+            for (ExportFormat format : formats.values()) {
+                if (mediaType.includes(format.getMediaType())) {
+                    return Optional.of(format);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
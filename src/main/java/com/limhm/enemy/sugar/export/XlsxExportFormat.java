@@ -0,0 +1,53 @@
+package com.limhm.enemy.sugar.export;
+
+import com.limhm.enemy.sugar.common.ExcelExporter;
+import com.limhm.enemy.sugar.domain.Beverage;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * 카페마다 시트 하나인 엑셀. 사람이 읽기 위한 기본 형식이다.
+ */
+@Component
+@RequiredArgsConstructor
+public class XlsxExportFormat implements ExportFormat {
+
+    public static final String NAME = "xlsx";
+
+    private static final MediaType MEDIA_TYPE = MediaType.parseMediaType(
+        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private static final String[] HEADERS = {"이름", "칼로리", "포화지방", "당류", "나트륨", "단백질", "카페인"};
+
+    private final ExcelExporter excelExporter;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return "xlsx";
+    }
+
+    @Override
+    public boolean isCompressible() {
+        return false;
+    }
+
+    @Override
+    public <T extends Beverage> Mono<Void> write(Map<String, List<T>> sheetData,
+        OutputStream outputStream) {
+        return excelExporter.writeExcelParallel(sheetData, HEADERS, outputStream);
+    }
+}
@@ -1,17 +1,20 @@
 package com.limhm.enemy.sugar.factory;
 
+import com.limhm.enemy.sugar.client.ConditionalFetcher;
+import com.limhm.enemy.sugar.client.FetchMetrics;
 import com.limhm.enemy.sugar.config.WebClientProvider;
 import com.limhm.enemy.sugar.domain.Beverage;
 import com.limhm.enemy.sugar.domain.Cafe;
-import com.limhm.enemy.sugar.domain.CafeDrink;
 import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.domain.Nutrient;
 import com.limhm.enemy.sugar.exception.ConnectionException;
-import com.limhm.enemy.sugar.exception.ParseException;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
+import com.limhm.enemy.sugar.parser.HtmlItemParser;
+import com.limhm.enemy.sugar.parser.NutritionExtractor;
+import org.jsoup.nodes.Element;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 
@@ -19,73 +22,75 @@ import reactor.core.publisher.Flux;
 public class CafeComposeCoffeeFactory implements CafeFactory {
 
     private static final String BASE_URL = "https://composecoffee.com/menu/category";
-    private static final int START_PAGE = 185;
-    private static final int COUNT = 10;
+    /**
+     * 185부터 CATEGORY_COUNT개의 번호는 페이지가 아니라 카테고리 번호이다. 중간에 빈 카테고리가 있어도 뒤의 카테고리가 있을 수 있으므로,
+     * Paginator로 빈 페이지에서 멈추지 않고 범위를 모두 요청한다.
+     */
+    private static final int FIRST_CATEGORY = 185;
+    private static final int CATEGORY_COUNT = 10;
+    private static final String URI_TEMPLATE = "/{category}";
     private static final String CAFE_KOR_NAME = "컴포즈커피";
+    private static final String ITEM_QUERY = ".itemBox";
+
+    /**
+     * "메뉴제공 : 2shot : 156mg/45ml", "카페인 - 4shot : 312mg/90ml", "카페인(mg) : 85" 형식은
+     * NutritionValueParser가 '/' 앞부분의 마지막 ':' 뒤에서 숫자를 읽는다.
+     */
+    static final NutritionExtractor EXTRACTOR = NutritionExtractor.builder()
+        .name(".title")
+        .rows(".info li.extra")
+        .field(Nutrient.CALORIES, "열량")
+        .field(Nutrient.SUGAR, "당류")
+        .field(Nutrient.PROTEIN, "단백질")
+        .field(Nutrient.SATURATED_FAT, "포화지방")
+        .field(Nutrient.SODIUM, "나트륨")
+        .field(Nutrient.CAFFEINE, "카페인")
+        .build();
+
+    private final Company cafe = new Cafe(CAFE_KOR_NAME);
     private final WebClient webClient;
+    private final HtmlItemParser htmlItemParser;
+    private final ConditionalFetcher conditionalFetcher;
 
-    public CafeComposeCoffeeFactory(WebClientProvider webClientProvider) {
+    public CafeComposeCoffeeFactory(WebClientProvider webClientProvider,
+        HtmlItemParser htmlItemParser, ConditionalFetcher conditionalFetcher) {
         this.webClient = webClientProvider.provideWebClient(BASE_URL);
+        this.htmlItemParser = htmlItemParser;
+        this.conditionalFetcher = conditionalFetcher;
     }
 
-    /**
-     * 메뉴제공 : 2shot : 156mg/45ml
-     * <p>
-     * 카페인 - 4shot : 312mg/90ml
-     * <p>
-     * 카페인(mg) : 85
-     * <p>
-     * 세가지 형식의 문자열에서 숫자만 추출해서 반환한다.
-     */
-    private static String extractNumericValue(String text) {
-        String[] extractMl = text.split("/");
-        String[] parts = extractMl[0].split(":");
-        String numeric = parts[parts.length - 1].replaceAll("[^\\d.]+", "");
-        return numeric.isEmpty() ? "0" : numeric;
+    private String buildUrl(Integer category) {
+        return UriComponentsBuilder.fromPath("/").pathSegment(String.valueOf(category)).build()
+            .toUriString();
     }
 
-    private String buildUrl(Integer page) {
-        return UriComponentsBuilder.fromPath("/").pathSegment(String.valueOf(page)).build()
-            .toUriString();
+    @Override
+    public Company getCompany() {
+        return cafe;
     }
 
     @Override
     public Flux<Beverage> createBeverage() {
-        return Flux.range(START_PAGE, COUNT).flatMap(page -> fetchItems(buildUrl(page)));
+        return conditionalFetcher.crawl(CAFE_KOR_NAME,
+            Flux.range(FIRST_CATEGORY, CATEGORY_COUNT)
+                .flatMap(category -> fetchItems(buildUrl(category))));
     }
 
     private Flux<Beverage> fetchItems(String path) {
-        return webClient.get().uri(path).retrieve().bodyToMono(String.class)
-            .flatMapMany(this::parse)
+        RequestHeadersSpec<?> request = webClient.get().uri(path)
+            .attribute(FetchMetrics.URI_TEMPLATE, URI_TEMPLATE);
+        return conditionalFetcher.fetch(CAFE_KOR_NAME, path, request, this::parse)
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
 
-    private Flux<Beverage> parse(String response) {
-        Company cafe = new Cafe(CAFE_KOR_NAME);
-        try {
-            Document document = Jsoup.parse(response);
-            Elements items = document.select(".itemBox");
+    /**
+     * 응답을 받는 대로 메뉴 요소를 찾아 CafeDrink로 변환한다.
+     */
+    Flux<Beverage> parse(Flux<DataBuffer> body) {
+        return htmlItemParser.parse(body, ITEM_QUERY, this::parseItem);
+    }
 
-            return Flux.fromIterable(items).map(item -> {
-                String name = item.select(".title").text();
-                String calories = extractNumericValue(
-                    item.select(".info li.extra:contains(열량)").text());
-                String sugar = extractNumericValue(
-                    item.select(".info li.extra:contains(당류)").text());
-                String protein = extractNumericValue(
-                    item.select(".info li.extra:contains(단백질)").text());
-                String saturatedFat = extractNumericValue(
-                    item.select(".info li.extra:contains(포화지방)").text());
-                String sodium = extractNumericValue(
-                    item.select(".info li.extra:contains(나트륨)").text());
-                String caffeine = extractNumericValue(
-                    item.select(".info li.extra:contains(카페인)").text());
-                Beverage drink = new CafeDrink(cafe, name, calories, sugar, protein, saturatedFat,
-                    sodium, caffeine);
-                return drink;
-            });
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
-        }
+    private Beverage parseItem(Element item) {
+        return EXTRACTOR.extract(item, cafe);
     }
 }
@@ -1,18 +1,20 @@
 package com.limhm.enemy.sugar.factory;
 
+import com.limhm.enemy.sugar.client.ConditionalFetcher;
+import com.limhm.enemy.sugar.client.Paginator;
 import com.limhm.enemy.sugar.config.WebClientProvider;
 import com.limhm.enemy.sugar.domain.Beverage;
 import com.limhm.enemy.sugar.domain.Cafe;
-import com.limhm.enemy.sugar.domain.CafeDrink;
 import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.domain.Nutrient;
 import com.limhm.enemy.sugar.exception.ConnectionException;
-import com.limhm.enemy.sugar.exception.ParseException;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import com.limhm.enemy.sugar.parser.HtmlItemParser;
+import com.limhm.enemy.sugar.parser.NutritionExtractor;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 
@@ -21,20 +23,37 @@ public class CafeEdiyaFactory implements CafeFactory {
 
     private static final String BASE_URL = "https://ediya.com/inc/ajax_brand.php";
     private static final int START_PAGE = 1;
-    private static final int END_PAGE = 25;
     private static final String CAFE_KOR_NAME = "이디야";
-    private final WebClient webClient;
-
-    public CafeEdiyaFactory(WebClientProvider webClientProvider) {
-        this.webClient = webClientProvider.provideWebClient(BASE_URL);
-    }
+    private static final String ITEM_QUERY = "li";
 
     /**
-     * "(52g)" 형식의 문자열에서 숫자만 추출해 반환한다.
+     * 칼로리는 dt의 하위 요소까지, 나머지는 dt 자신의 텍스트에서 라벨을 찾고 다음 형제 요소(dd)의 값을 사용한다.
      */
-    private static String extractNumericValue(String text) {
-        String numeric = text.replaceAll("[^\\d.]+", "");
-        return numeric.isEmpty() ? "0" : numeric;
+    static final NutritionExtractor EXTRACTOR = NutritionExtractor.builder()
+        .name("h2", h2 -> h2.ownText().trim())
+        .rows("dl dt").valueInNextSibling()
+        .field(Nutrient.CALORIES, "칼로리")
+        .rowsByOwnText("dl dt").valueInNextSibling()
+        .field(Nutrient.SATURATED_FAT, "포화지방")
+        .field(Nutrient.SUGAR, "당류")
+        .field(Nutrient.SODIUM, "나트륨")
+        .field(Nutrient.PROTEIN, "단백질")
+        .field(Nutrient.CAFFEINE, "카페인")
+        .build();
+
+    private final Company cafe = new Cafe(CAFE_KOR_NAME);
+    private final WebClient webClient;
+    private final HtmlItemParser htmlItemParser;
+    private final ConditionalFetcher conditionalFetcher;
+    private final Paginator paginator;
+
+    public CafeEdiyaFactory(WebClientProvider webClientProvider,
+        HtmlItemParser htmlItemParser, ConditionalFetcher conditionalFetcher,
+        Paginator paginator) {
+        this.webClient = webClientProvider.provideWebClient(BASE_URL);
+        this.htmlItemParser = htmlItemParser;
+        this.conditionalFetcher = conditionalFetcher;
+        this.paginator = paginator;
     }
 
     private String buildUrl(Integer page) {
@@ -47,46 +66,33 @@ public class CafeEdiyaFactory implements CafeFactory {
             .build().toUriString();
     }
 
+    @Override
+    public Company getCompany() {
+        return cafe;
+    }
+
     @Override
     public Flux<Beverage> createBeverage() {
-        return Flux.range(START_PAGE, END_PAGE).flatMap(page -> fetchItems(buildUrl(page)));
+        return conditionalFetcher.crawl(CAFE_KOR_NAME,
+            paginator.paginate(START_PAGE, page -> fetchItems(buildUrl(page)),
+                Beverage::getName));
     }
 
     private Flux<Beverage> fetchItems(String path) {
-        return webClient.get().uri(path).retrieve().bodyToMono(String.class)
-            .flatMapMany(this::parse)
+        RequestHeadersSpec<?> request = webClient.get().uri(path);
+        return conditionalFetcher.fetch(CAFE_KOR_NAME, path, request, this::parse)
             .onErrorResume(e -> Flux.error(
                 new ConnectionException(BASE_URL + path, e)));
     }
 
-    private Flux<Beverage> parse(String response) {
-        Company cafe = new Cafe(CAFE_KOR_NAME);
-
-        try {
-            Document document = Jsoup.parse(response);
-            Elements items = document.select("li");
+    /**
+     * 응답을 받는 대로 메뉴 요소를 찾아 CafeDrink로 변환한다.
+     */
+    Flux<Beverage> parse(Flux<DataBuffer> body) {
+        return htmlItemParser.parse(body, ITEM_QUERY, this::parseItem);
+    }
 
-            return Flux.fromIterable(items).map(item -> {
-                Element h2 = item.select("h2").first();
-                String name = h2.ownText().trim();
-                String calories = extractNumericValue(
-                    item.select("dl dt:contains(칼로리) + dd").text());
-                String saturatedFat = extractNumericValue(
-                    item.select("dl dt:containsOwn(포화지방) + dd").text());
-                String sugar = extractNumericValue(
-                    item.select("dl dt:containsOwn(당류) + dd").text());
-                String sodium = extractNumericValue(
-                    item.select("dl dt:containsOwn(나트륨) + dd").text());
-                String protein = extractNumericValue(
-                    item.select("dl dt:containsOwn(단백질) + dd").text());
-                String caffeine = extractNumericValue(
-                    item.select("dl dt:containsOwn(카페인) + dd").text());
-                Beverage drink = new CafeDrink(cafe, name, calories, sugar, protein, saturatedFat,
-                    sodium, caffeine);
-                return drink;
-            });
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
-        }
+    private Beverage parseItem(Element item) {
+        return EXTRACTOR.extract(item, cafe);
     }
 }
@@ -1,6 +1,7 @@
 package com.limhm.enemy.sugar.factory;
 
 import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Company;
 import reactor.core.publisher.Flux;
 
 /**
@@ -17,4 +18,9 @@ public interface CafeFactory {
      * Flux 모두 Reactive Stream의 Publisher 인터페이스를 구현하고 있으며, 리액터에서 제공하는 연산자들의 조합을 통해 스트림을 표현할 수 있다.
      */
     Flux<Beverage> createBeverage();
+
+    /**
+     * 이 팩토리가 크롤링하는 카페. 저장소에서 카페의 메뉴를 찾을 때 사용한다.
+     */
+    Company getCompany();
 }
@@ -1,18 +1,20 @@
 package com.limhm.enemy.sugar.factory;
 
+import com.limhm.enemy.sugar.client.ConditionalFetcher;
+import com.limhm.enemy.sugar.client.Paginator;
 import com.limhm.enemy.sugar.config.WebClientProvider;
 import com.limhm.enemy.sugar.domain.Beverage;
 import com.limhm.enemy.sugar.domain.Cafe;
-import com.limhm.enemy.sugar.domain.CafeDrink;
 import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.domain.Nutrient;
 import com.limhm.enemy.sugar.exception.ConnectionException;
-import com.limhm.enemy.sugar.exception.ParseException;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import com.limhm.enemy.sugar.parser.HtmlItemParser;
+import com.limhm.enemy.sugar.parser.NutritionExtractor;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 
@@ -24,20 +26,37 @@ public class CafeMegaCoffeeFactory implements CafeFactory {
      */
     private final String BASE_URL = "https://www.mega-mgccoffee.com/menu/menu.php";
     private final int START_PAGE = 1;
-    private final int END_PAGE = 10;
     private final String CAFE_KOR_NAME = "메가커피";
-    private final WebClient webClient;
-
-    public CafeMegaCoffeeFactory(WebClientProvider webClientProvider) {
-        this.webClient = webClientProvider.provideWebClient(BASE_URL);
-    }
+    private final String ITEM_QUERY = "#menu_list > li";
 
     /**
-     * "포화지방 11.1g" 형식의 문자열에서 숫자만 추출해 반환한다.
+     * 선택자는 한 번만 컴파일해 모든 메뉴 요소에 재사용한다.
      */
-    private String extractNumericValue(String text) {
-        String numeric = text.replaceAll("[^\\d.]+", "");
-        return numeric.isEmpty() ? "0" : numeric;
+    static final NutritionExtractor EXTRACTOR = NutritionExtractor.builder()
+        .name(".cont_text_title b")
+        .rows(".cont_text_inner")
+        .field(Nutrient.CALORIES, "1회 제공량")
+        .rows(".cont_list li")
+        .field(Nutrient.SATURATED_FAT, "포화지방")
+        .field(Nutrient.SUGAR, "당류")
+        .field(Nutrient.SODIUM, "나트륨")
+        .field(Nutrient.PROTEIN, "단백질")
+        .field(Nutrient.CAFFEINE, "카페인")
+        .build();
+
+    private final Company cafe = new Cafe(CAFE_KOR_NAME);
+    private final WebClient webClient;
+    private final HtmlItemParser htmlItemParser;
+    private final ConditionalFetcher conditionalFetcher;
+    private final Paginator paginator;
+
+    public CafeMegaCoffeeFactory(WebClientProvider webClientProvider,
+        HtmlItemParser htmlItemParser, ConditionalFetcher conditionalFetcher,
+        Paginator paginator) {
+        this.webClient = webClientProvider.provideWebClient(BASE_URL);
+        this.htmlItemParser = htmlItemParser;
+        this.conditionalFetcher = conditionalFetcher;
+        this.paginator = paginator;
     }
 
     private String buildUrl(Integer page) {
@@ -50,6 +69,11 @@ public class CafeMegaCoffeeFactory implements CafeFactory {
             .build().toUriString();
     }
 
+    @Override
+    public Company getCompany() {
+        return cafe;
+    }
+
     /**
      * fromIterable(Iterable it): Iterable 인자를 넘기면 Iterable을 Flux로 변환
      * <p>
@@ -57,10 +81,14 @@ public class CafeMegaCoffeeFactory implements CafeFactory {
      * 보장하지 않으므로, 순서를 보장하려면 flatMapSequential 또는 concatMap을 사용한다. flatMapSequential과 concatMap의 차이는
      * concatMap은 퍼블리셔의 스트림이 다 끝난 후에 그 다음 넘어오는 값의 퍼블리셔 스트림을 처리한다. flatMapSequential은 일단 오는대로 구독하고
      * 결과를 순서에 맞게 리턴한다.
+     * <p>
+     * Paginator: 내부에서 flatMapSequential로 몇 페이지씩 미리 요청하고, 빈 페이지나 직전과 같은 페이지가 나오면 멈춘다.
      */
     @Override
     public Flux<Beverage> createBeverage() {
-        return Flux.range(START_PAGE, END_PAGE).flatMap(page -> fetchItems(buildUrl(page)));
+        return conditionalFetcher.crawl(CAFE_KOR_NAME,
+            paginator.paginate(START_PAGE, page -> fetchItems(buildUrl(page)),
+                Beverage::getName));
     }
 
     /**
@@ -68,51 +96,22 @@ public class CafeMegaCoffeeFactory implements CafeFactory {
      * <p>
      * create(): 정적 팩토리 메서드를 이용해 WebClient를 생성한다.
      * <p>
-     * bodyToMono(): 응답 body를 Mono 객체로 반환한다.
-     * <p>
-     * flatMapMany(): Mono에서 Flux로 변환한다.
+     * ConditionalFetcher: 이전 응답의 ETag, Last-Modified로 조건부 요청을 보내고, 변경이 없으면(304) 이전에 파싱한 메뉴를 재사용한다.
      */
     private Flux<Beverage> fetchItems(String path) {
-        return webClient.get().uri(path).retrieve().bodyToMono(String.class)
-            .flatMapMany(this::parse)
+        RequestHeadersSpec<?> request = webClient.get().uri(path);
+        return conditionalFetcher.fetch(CAFE_KOR_NAME, path, request, this::parse)
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
 
     /**
-     * defer(): 값을 지연해 방출한다. just()는 값을 바로 방출한다.
-     * <p>
-     * selectFirst(String cssQuery): 인수와 일치하는 첫번째 요소를 반환한다.
-     * <p>
-     * select(String cssQuery): 인수와 일치하는 모든 요소들을 반환한다.
+     * 응답을 받는 대로 메뉴 요소를 찾아 CafeDrink로 변환한다.
      */
-    private Flux<Beverage> parse(String response) {
-        Company cafe = new Cafe(CAFE_KOR_NAME);
-        try {
-            Document document = Jsoup.parse(response);
-            Element menu = document.selectFirst("#menu_list");
-            Elements items = menu.select("> li");
+    Flux<Beverage> parse(Flux<DataBuffer> body) {
+        return htmlItemParser.parse(body, ITEM_QUERY, this::parseItem);
+    }
 
-            return Flux.fromIterable(items).map(item -> {
-                String name = item.select(".cont_text_title b").first().text();
-                String calories = extractNumericValue(
-                    item.select(".cont_text_inner:contains(1회 제공량)").text()
-                        .replace("1회 제공량", ""));
-                String saturatedFat = extractNumericValue(
-                    item.select(".cont_list li:contains(포화지방)").text());
-                String sugar = extractNumericValue(
-                    item.select(".cont_list li:contains(당류)").text());
-                String sodium = extractNumericValue(
-                    item.select(".cont_list li:contains(나트륨)").text());
-                String protein = extractNumericValue(
-                    item.select(".cont_list li:contains(단백질)").text());
-                String caffeine = extractNumericValue(
-                    item.select(".cont_list li:contains(카페인)").text());
-                Beverage drink = new CafeDrink(cafe, name, calories, sugar, protein,
-                    saturatedFat, sodium, caffeine);
-                return drink;
-            });
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
-        }
+    private Beverage parseItem(Element item) {
+        return EXTRACTOR.extract(item, cafe);
     }
 }
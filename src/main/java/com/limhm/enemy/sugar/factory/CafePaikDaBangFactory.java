@@ -1,19 +1,21 @@
 package com.limhm.enemy.sugar.factory;
 
+import com.limhm.enemy.sugar.client.ConditionalFetcher;
 import com.limhm.enemy.sugar.config.WebClientProvider;
 import com.limhm.enemy.sugar.domain.Beverage;
 import com.limhm.enemy.sugar.domain.Cafe;
-import com.limhm.enemy.sugar.domain.CafeDrink;
 import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.domain.Nutrient;
 import com.limhm.enemy.sugar.exception.ConnectionException;
-import com.limhm.enemy.sugar.exception.ParseException;
+import com.limhm.enemy.sugar.parser.HtmlItemParser;
+import com.limhm.enemy.sugar.parser.NutritionExtractor;
 import java.util.ArrayList;
 import java.util.List;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
+import org.jsoup.nodes.Element;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import reactor.core.publisher.Flux;
 
 @Component
@@ -23,50 +25,59 @@ public class CafePaikDaBangFactory implements CafeFactory {
         List.of("https://paikdabang.com/menu/menu_coffee/",
             "https://paikdabang.com/menu/menu_drink/", "https://paikdabang.com/menu/menu_ccino/"));
     private static final String CAFE_KOR_NAME = "빽다방";
+    private static final String ITEM_QUERY = ".menu_list > ul > li";
+
+    /**
+     * 영양 성분 값이 없으면 "-"로 표시되며, NutritionValueParser가 0으로 읽는다.
+     */
+    static final NutritionExtractor EXTRACTOR = NutritionExtractor.builder()
+        .name(".menu_tit")
+        .rows(".ingredient_table li").valueIn("div:nth-child(2)")
+        .field(Nutrient.CALORIES, "칼로리")
+        .field(Nutrient.SATURATED_FAT, "포화지방")
+        .field(Nutrient.SUGAR, "당류")
+        .field(Nutrient.SODIUM, "나트륨")
+        .field(Nutrient.PROTEIN, "단백질")
+        .field(Nutrient.CAFFEINE, "카페인")
+        .build();
+
+    private final Company cafe = new Cafe(CAFE_KOR_NAME);
     private final WebClient webClient;
+    private final HtmlItemParser htmlItemParser;
+    private final ConditionalFetcher conditionalFetcher;
 
-    public CafePaikDaBangFactory(WebClientProvider webClientProvider) {
+    public CafePaikDaBangFactory(WebClientProvider webClientProvider,
+        HtmlItemParser htmlItemParser, ConditionalFetcher conditionalFetcher) {
         this.webClient = webClientProvider.provideWebClient("");
+        this.htmlItemParser = htmlItemParser;
+        this.conditionalFetcher = conditionalFetcher;
+    }
+
+    @Override
+    public Company getCompany() {
+        return cafe;
     }
 
     @Override
     public Flux<Beverage> createBeverage() {
-        return Flux.fromIterable(URLS).flatMap(this::fetchItems);
+        return conditionalFetcher.crawl(CAFE_KOR_NAME,
+            Flux.fromIterable(URLS).flatMap(this::fetchItems));
     }
 
     public Flux<Beverage> fetchItems(String path) {
-        return webClient.get().uri(path).retrieve().bodyToMono(String.class)
-            .flatMapMany(this::parse)
+        RequestHeadersSpec<?> request = webClient.get().uri(path);
+        return conditionalFetcher.fetch(CAFE_KOR_NAME, path, request, this::parse)
             .onErrorResume(e -> Flux.error(new ConnectionException(path, e)));
     }
 
-    private Flux<Beverage> parse(String response) {
-        Company cafe = new Cafe(CAFE_KOR_NAME);
-        try {
-            Document document = Jsoup.parse(response);
-            Elements items = document.select(".menu_list > ul> li");
+    /**
+     * 응답을 받는 대로 메뉴 요소를 찾아 CafeDrink로 변환한다.
+     */
+    Flux<Beverage> parse(Flux<DataBuffer> body) {
+        return htmlItemParser.parse(body, ITEM_QUERY, this::parseItem);
+    }
 
-            return Flux.fromIterable(items).map(item -> {
-                String name = item.select(".menu_tit").text();
-                String calories = item.select(".ingredient_table li:contains(칼로리) div:nth-child(2)")
-                    .text();
-                String saturatedFat = item.select(
-                        ".ingredient_table li:contains(포화지방) div:nth-child(2)").text()
-                    .replace("-", "0");
-                String sugar = item.select(".ingredient_table li:contains(당류) div:nth-child(2)")
-                    .text().replace("-", "0");
-                String sodium = item.select(".ingredient_table li:contains(나트륨) div:nth-child(2)")
-                    .text().replace("-", "0");
-                String protein = item.select(".ingredient_table li:contains(단백질) div:nth-child(2)")
-                    .text().replace("-", "0");
-                String caffeine = item.select(".ingredient_table li:contains(카페인) div:nth-child(2)")
-                    .text().replace("-", "0");
-                Beverage drink = new CafeDrink(cafe, name, calories, sugar, protein, saturatedFat,
-                    sodium, caffeine);
-                return drink;
-            });
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
-        }
+    private Beverage parseItem(Element item) {
+        return EXTRACTOR.extract(item, cafe);
     }
 }
@@ -1,18 +1,22 @@
 package com.limhm.enemy.sugar.factory;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.limhm.enemy.sugar.client.ConditionalFetcher;
 import com.limhm.enemy.sugar.config.WebClientProvider;
 import com.limhm.enemy.sugar.domain.Beverage;
 import com.limhm.enemy.sugar.domain.Cafe;
 import com.limhm.enemy.sugar.domain.CafeDrink;
 import com.limhm.enemy.sugar.domain.Company;
 import com.limhm.enemy.sugar.exception.ConnectionException;
-import com.limhm.enemy.sugar.exception.ParseException;
+import com.limhm.enemy.sugar.parser.JsonResponseParser;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
 import reactor.core.publisher.Flux;
 
 @Component
@@ -28,49 +32,74 @@ public class CafeStarbucksFactory implements CafeFactory {
             "W0000422.js", "W0000061.js", "W0000075.js", "W0000053.js", "W0000062.js",
             "W0000471.js"));
     private static final String CAFE_KOR_NAME = "스타벅스";
+    private final Company cafe = new Cafe(CAFE_KOR_NAME);
     private final WebClient webClient;
+    private final JsonResponseParser jsonResponseParser;
+    private final ConditionalFetcher conditionalFetcher;
 
-    public CafeStarbucksFactory(WebClientProvider webClientProvider) {
+    public CafeStarbucksFactory(WebClientProvider webClientProvider,
+        JsonResponseParser jsonResponseParser, ConditionalFetcher conditionalFetcher) {
         this.webClient = webClientProvider.provideWebClient(BASE_URL);
+        this.jsonResponseParser = jsonResponseParser;
+        this.conditionalFetcher = conditionalFetcher;
+    }
+
+    @Override
+    public Company getCompany() {
+        return cafe;
     }
 
     @Override
     public Flux<Beverage> createBeverage() {
-        return Flux.fromIterable(PATH).flatMap(this::fetchItems);
+        return conditionalFetcher.crawl(CAFE_KOR_NAME,
+            Flux.fromIterable(PATH).flatMap(this::fetchItems));
     }
 
     private Flux<Beverage> fetchItems(String path) {
-        return webClient.get().uri(path).retrieve().bodyToMono(String.class)
-            .flatMapMany(this::parse)
+        RequestHeadersSpec<?> request = webClient.get().uri(path);
+        return conditionalFetcher.fetch(CAFE_KOR_NAME, path, request, this::parse)
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
 
+    Flux<Beverage> parse(Flux<DataBuffer> body) {
+        return jsonResponseParser.parse(body, this::readItems);
+    }
+
     /**
-     * readTree(String c): JsonNode로 변환한다.
-     * <p>
-     * path(): 필드를 읽는다. get()과 차이는 null인 경우 get()은 null을 리턴한다.
+     * {"list": [{"product_NM": ..., "kcal": ..., ...}, ...]} 형식의 응답에서 list 배열의 메뉴를 하나씩 읽는다. 메뉴 하나의
+     * 필드를 한 번만 훑으며 이름과 영양 성분을 모두 채우고, 나머지 필드는 건너뛴다.
      */
-    private Flux<Beverage> parse(String response) {
-        Company cafe = new Cafe(CAFE_KOR_NAME);
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode items = root.path("list");
-
-            return Flux.fromIterable(items).map(item -> {
-                String name = item.path("product_NM").asText();
-                String calories = item.path("kcal").asText();
-                String sugar = item.path("sugars").asText();
-                String protein = item.path("protein").asText();
-                String saturatedFat = item.path("sat_FAT").asText();
-                String sodium = item.path("sodium").asText();
-                String caffeine = item.path("caffeine").asText();
-                Beverage drink = new CafeDrink(cafe, name, calories, sugar, protein, saturatedFat,
-                    sodium, caffeine);
-                return drink;
-            });
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
+    private List<Beverage> readItems(JsonParser parser) throws IOException {
+        List<Beverage> drinks = new ArrayList<>();
+        if (!JsonResponseParser.moveToField(parser, "list")
+            || parser.currentToken() != JsonToken.START_ARRAY) {
+            return drinks;
+        }
+        while (JsonResponseParser.nextObject(parser)) {
+            String name = "";
+            double calories = 0;
+            double sugar = 0;
+            double protein = 0;
+            double saturatedFat = 0;
+            double sodium = 0;
+            double caffeine = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "product_NM" -> name = parser.getValueAsString("");
+                    case "kcal" -> calories = JsonResponseParser.doubleValue(parser);
+                    case "sugars" -> sugar = JsonResponseParser.doubleValue(parser);
+                    case "protein" -> protein = JsonResponseParser.doubleValue(parser);
+                    case "sat_FAT" -> saturatedFat = JsonResponseParser.doubleValue(parser);
+                    case "sodium" -> sodium = JsonResponseParser.doubleValue(parser);
+                    case "caffeine" -> caffeine = JsonResponseParser.doubleValue(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            drinks.add(new CafeDrink(cafe, name, calories, sugar, protein, saturatedFat, sodium,
+                caffeine));
         }
+        return drinks;
     }
 }
@@ -1,25 +1,41 @@
 package com.limhm.enemy.sugar.factory;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonToken;
+import com.limhm.enemy.sugar.client.FetchProperties;
+import com.limhm.enemy.sugar.client.FetchProperties.StageTuning;
+import com.limhm.enemy.sugar.client.Paginator;
+import com.limhm.enemy.sugar.client.ResilienceFilter;
+import com.limhm.enemy.sugar.client.ResponseMemo;
+import com.limhm.enemy.sugar.client.SingleFlightFilter;
 import com.limhm.enemy.sugar.config.WebClientProvider;
 import com.limhm.enemy.sugar.domain.Beverage;
 import com.limhm.enemy.sugar.domain.Cafe;
 import com.limhm.enemy.sugar.domain.CafeDrink;
 import com.limhm.enemy.sugar.domain.CafeTwosomeRequestBody;
 import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.domain.Nutrient;
 import com.limhm.enemy.sugar.exception.ConnectionException;
 import com.limhm.enemy.sugar.exception.ParseException;
+import com.limhm.enemy.sugar.parser.JsonResponseParser;
+import com.limhm.enemy.sugar.parser.NutritionValueParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.select.Elements;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
+import reactor.core.observability.micrometer.Micrometer;
 import reactor.core.publisher.Flux;
 
 @Component
@@ -27,34 +43,41 @@ public class CafeTwosomePlaceCoffeeFactory implements CafeFactory {
 
     private static final String BASE_URL = "https://mo.twosome.co.kr/mn";
     private static final int START_PAGE = 1;
-    private static final int END_PAGE = 5;
     private static final List<String> MID_CD = new ArrayList<>(List.of("01", "02", "03"));
     private static final String CAFE_KOR_NAME = "투썸플레이스";
+    private static final Map<String, Nutrient> INFO_TITLES = Map.of(
+        "열량(Kcal)", Nutrient.CALORIES,
+        "당류(g/%)", Nutrient.SUGAR,
+        "단백질(g/%)", Nutrient.PROTEIN,
+        "포화지방(g/%)", Nutrient.SATURATED_FAT,
+        "나트륨(mg/%)", Nutrient.SODIUM,
+        "카페인(mg/%)", Nutrient.CAFFEINE);
 
+    private final Company cafe = new Cafe(CAFE_KOR_NAME);
     private final WebClient webClient;
+    private final JsonResponseParser jsonResponseParser;
+    private final Paginator paginator;
+    private final MeterRegistry meterRegistry;
+    private final ResponseMemo sharedMemo;
+    private final StageTuning menuListStage;
+    private final StageTuning temperatureStage;
+    private final StageTuning sizeStage;
+    private final StageTuning infoStage;
 
-    public CafeTwosomePlaceCoffeeFactory(WebClientProvider webClientProvider) {
+    public CafeTwosomePlaceCoffeeFactory(WebClientProvider webClientProvider,
+        FetchProperties fetchProperties, JsonResponseParser jsonResponseParser,
+        Paginator paginator, MeterRegistry meterRegistry) {
         this.webClient = webClientProvider.provideWebClient(BASE_URL,
             MediaType.APPLICATION_FORM_URLENCODED_VALUE);
-    }
-
-    /**
-     * "355ml" 형식의 문자열에서 숫자만 추출해 반환한다.
-     */
-    private static String extractNumericValue(String text) {
-        String numeric = text.replaceAll("[^\\d.]+", "");
-        return numeric.isEmpty() ? "0" : numeric;
-    }
-
-    private static String getNodeValue(JsonNode rootNode, String infoTitle) {
-        for (JsonNode node : rootNode) {
-            String title = node.path("ADD_INFO_TITLE").asText();
-            if (infoTitle.equals(title)) {
-                String[] values = node.path("MENU_CNTNT").asText().split("/");
-                return extractNumericValue(values[0]);
-            }
-        }
-        return "0";
+        this.menuListStage = fetchProperties.getStage("twosome-menu-list");
+        this.temperatureStage = fetchProperties.getStage("twosome-temperature");
+        this.sizeStage = fetchProperties.getStage("twosome-size");
+        this.infoStage = fetchProperties.getStage("twosome-info");
+        this.jsonResponseParser = jsonResponseParser;
+        this.paginator = paginator;
+        this.meterRegistry = meterRegistry;
+        this.sharedMemo = fetchProperties.getMemoTtl().isZero() ? null
+            : new ResponseMemo(fetchProperties.getMemoTtl(), meterRegistry, CAFE_KOR_NAME);
     }
 
     private MultiValueMap<String, String> createRequestBodyForMenuInfoList(Integer page,
@@ -66,19 +89,81 @@ public class CafeTwosomePlaceCoffeeFactory implements CafeFactory {
         return parameters;
     }
 
+    @Override
+    public Company getCompany() {
+        return cafe;
+    }
+
+    /**
+     * 메뉴 목록은 분류(MID_CD)마다 빈 페이지가 나올 때까지 요청한다.
+     * <p>
+     * 메뉴 목록, 온도, 사이즈, 영양 정보 네 단계마다 flatMap의 동시 구독 수(concurrency)와 prefetch를 설정으로 조절한다.
+     * <p>
+     * 같은 메뉴 코드가 여러 분류나 페이지에 나오면 온도, 사이즈, 영양 정보 요청이 반복되므로 ResponseMemo로 응답을 재사용한다.
+     * contextWrite(): 구독(크롤링)마다 새 ResponseMemo를 Context에 넣는다. cafe.fetch.memo-ttl이 양수이면 모든 크롤링이
+     * sharedMemo를 함께 사용한다.
+     */
     @Override
     public Flux<Beverage> createBeverage() {
-        return Flux.range(START_PAGE, END_PAGE)
-            .flatMap(page -> Flux.fromIterable(MID_CD).flatMap(midCd -> fetchItems(page, midCd)))
-            .flatMap(this::fetchTemperatureOptions).flatMap(this::fetchSizeOptions)
-            .flatMap(this::fetchInfo);
+        return crawl().contextWrite(context -> context.put(ResponseMemo.class,
+            sharedMemo != null ? sharedMemo
+                : new ResponseMemo(Duration.ZERO, meterRegistry, CAFE_KOR_NAME)));
+    }
+
+    private Flux<Beverage> crawl() {
+        return Flux.fromIterable(MID_CD)
+            .flatMap(midCd -> paginator.paginate(START_PAGE,
+                    page -> measure("menu-list", fetchItems(page, midCd)),
+                    CafeTwosomeRequestBody::getMenuCode),
+                menuListStage.getConcurrency(), menuListStage.getPrefetch())
+            .flatMap(request -> measure("temperature", fetchTemperatureOptions(request)),
+                temperatureStage.getConcurrency(), temperatureStage.getPrefetch())
+            .flatMap(request -> measure("size", fetchSizeOptions(request)),
+                sizeStage.getConcurrency(), sizeStage.getPrefetch())
+            .flatMap(request -> measure("info", fetchInfo(request)),
+                infoStage.getConcurrency(), infoStage.getPrefetch());
+    }
+
+    /**
+     * name(), tag(), tap(Micrometer.metrics()): 단계별 요청 한 건의 처리
+     * 시간(cafe.twosome.stage.flow.duration)과 요청 한 건이 만든 요소 수(cafe.twosome.stage.onNext.delay의
+     * count를 flow.duration의 count로 나눈 값)를 기록한다.
+     */
+    private <T> Flux<T> measure(String stage, Flux<T> requests) {
+        return requests.name("cafe.twosome.stage")
+            .tag("stage", stage)
+            .tap(Micrometer.metrics(meterRegistry));
+    }
+
+    /**
+     * 메뉴 조회 POST는 서버의 상태를 바꾸지 않으므로, ResilienceFilter가 GET처럼 재시도할 수 있게 표시한다.
+     * <p>
+     * SingleFlightFilter.BODY: 같은 경로와 폼 데이터로 동시에 보내는 요청을 하나로 합칠 수 있게 본문을 속성으로도 전달한다.
+     */
+    private RequestHeadersSpec<?> post(String path, MultiValueMap<String, String> formData) {
+        return webClient.post().uri(path)
+            .attribute(ResilienceFilter.IDEMPOTENT, true)
+            .attribute(SingleFlightFilter.BODY, formData)
+            .bodyValue(formData);
+    }
+
+    /**
+     * 옵션과 영양 정보 요청은 경로와 폼 데이터가 같으면 응답도 같으므로, 크롤링의 ResponseMemo에서 먼저 찾는다. 키는 메뉴 코드,
+     * (메뉴 코드, 온도), (메뉴 코드, 온도, 사이즈)를 담은 폼 데이터이다.
+     */
+    private Flux<DataBuffer> memoized(String path, MultiValueMap<String, String> formData) {
+        Flux<DataBuffer> body = post(path, formData).retrieve().bodyToFlux(DataBuffer.class);
+        return Flux.deferContextual(context -> context.<ResponseMemo>getOrEmpty(ResponseMemo.class)
+            .map(memo -> memo.body(path + " " + formData, body))
+            .orElse(body));
     }
 
     private Flux<CafeTwosomeRequestBody> fetchItems(Integer page, String midCd) {
         MultiValueMap<String, String> parameters = createRequestBodyForMenuInfoList(page, midCd);
         String path = "/menuInfoListAjax.json";
-        return webClient.post().uri(path).bodyValue(parameters).retrieve().bodyToMono(String.class)
-            .flatMapMany(this::parseMenuNameAndCode)
+        Flux<DataBuffer> body = post(path, parameters).retrieve()
+            .bodyToFlux(DataBuffer.class);
+        return parseMenuNameAndCode(body)
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
 
@@ -87,7 +172,8 @@ public class CafeTwosomePlaceCoffeeFactory implements CafeFactory {
         formData.add("menuCd", request.getMenuCode());
         formData.add("grtCd", "1");
         String path = "/menuAddInfoListAjax.json";
-        return webClient.post().uri(path).bodyValue(formData).retrieve().bodyToMono(String.class)
+        return DataBufferUtils.join(memoized(path, formData))
+            .map(this::readString)
             .flatMapMany(response -> parseTemperatureOptions(response, request))
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
@@ -97,8 +183,8 @@ public class CafeTwosomePlaceCoffeeFactory implements CafeFactory {
         formData.add("menuCd", request.getMenuCode());
         formData.add("ondoOpt", request.getTemperatureOption());
         String path = "/menuSizeOptListAjax.json";
-        return webClient.post().uri(path).bodyValue(formData).retrieve()
-            .bodyToMono(String.class).flatMapMany(response -> parseSizeOptions(response, request))
+        Flux<DataBuffer> body = memoized(path, formData);
+        return parseSizeOptions(body, request)
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
 
@@ -108,32 +194,49 @@ public class CafeTwosomePlaceCoffeeFactory implements CafeFactory {
         formData.add("ondoOpt", request.getTemperatureOption());
         formData.add("sizeOpt", request.getSizeOption());
         String path = "/menuAddInfoCntnListAjax.json";
-        return webClient.post().uri(path).bodyValue(formData).retrieve()
-            .bodyToMono(String.class).flatMapMany(response -> parseInfo(response, request))
+        Flux<DataBuffer> body = memoized(path, formData);
+        return parseInfo(body, request)
             .onErrorResume(e -> Flux.error(new ConnectionException(BASE_URL + path, e)));
     }
 
-    private Flux<CafeTwosomeRequestBody> parseMenuNameAndCode(String response) {
-        ObjectMapper objectMapper = new ObjectMapper();
+    private String readString(DataBuffer buffer) {
         try {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode fetchResult = jsonNode.get("fetchResultListSet");
-
-            if (fetchResult.isArray()) {
-                return Flux.fromIterable(fetchResult).map(node -> {
-                    String menuName = node.get("MENU_NM").asText();
-                    String menuCode = node.get("MENU_CD").asText();
-                    return CafeTwosomeRequestBody.builder().menuName(menuName).menuCode(menuCode)
-                        .build();
-                });
-            }
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
+            return buffer.toString(StandardCharsets.UTF_8);
+        } finally {
+            DataBufferUtils.release(buffer);
         }
-        return Flux.empty();
     }
 
-    private Flux<CafeTwosomeRequestBody> parseTemperatureOptions(String response,
+    /**
+     * {"fetchResultListSet": [{"MENU_NM": ..., "MENU_CD": ...}, ...]} 형식의 응답에서 메뉴 이름과 코드를 읽는다.
+     */
+    Flux<CafeTwosomeRequestBody> parseMenuNameAndCode(Flux<DataBuffer> body) {
+        return jsonResponseParser.parse(body, parser -> {
+            List<CafeTwosomeRequestBody> requests = new ArrayList<>();
+            if (!JsonResponseParser.moveToField(parser, "fetchResultListSet")
+                || parser.currentToken() != JsonToken.START_ARRAY) {
+                return requests;
+            }
+            while (JsonResponseParser.nextObject(parser)) {
+                String menuName = "";
+                String menuCode = "";
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "MENU_NM" -> menuName = parser.getValueAsString("");
+                        case "MENU_CD" -> menuCode = parser.getValueAsString("");
+                        default -> parser.skipChildren();
+                    }
+                }
+                requests.add(CafeTwosomeRequestBody.builder().menuName(menuName).menuCode(menuCode)
+                    .build());
+            }
+            return requests;
+        });
+    }
+
+    Flux<CafeTwosomeRequestBody> parseTemperatureOptions(String response,
         CafeTwosomeRequestBody request) {
         try {
             Document document = Jsoup.parse(response);
@@ -154,54 +257,72 @@ public class CafeTwosomePlaceCoffeeFactory implements CafeFactory {
         }
     }
 
-    private Flux<CafeTwosomeRequestBody> parseSizeOptions(String response,
+    /**
+     * [{"OPTS": ..., "SIZE_OPT_NM": ...}, ...] 형식의 응답에서 사이즈 옵션을 읽는다.
+     */
+    Flux<CafeTwosomeRequestBody> parseSizeOptions(Flux<DataBuffer> body,
         CafeTwosomeRequestBody request) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            JsonNode jsonNode = objectMapper.readTree(response);
-
-            if (jsonNode.isArray()) {
-                return Flux.fromIterable(jsonNode).map(node -> {
-                    String sizeOption = node.get("OPTS").asText();
-                    String sizeOptionName = node.get("SIZE_OPT_NM").asText();
-                    String menuName = request.getMenuName() + " (" + sizeOptionName + ")";
-
-                    CafeTwosomeRequestBody newRequest = CafeTwosomeRequestBody.builder()
-                        .menuCode(request.getMenuCode())
-                        .temperatureOption(request.getTemperatureOption()).menuName(menuName)
-                        .sizeOption(sizeOption).build();
-                    return newRequest;
-                });
+        return jsonResponseParser.parse(body, parser -> {
+            List<CafeTwosomeRequestBody> requests = new ArrayList<>();
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return requests;
             }
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
-        }
-        return Flux.empty();
+            while (JsonResponseParser.nextObject(parser)) {
+                String sizeOption = "";
+                String sizeOptionName = "";
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "OPTS" -> sizeOption = parser.getValueAsString("");
+                        case "SIZE_OPT_NM" -> sizeOptionName = parser.getValueAsString("");
+                        default -> parser.skipChildren();
+                    }
+                }
+                String menuName = request.getMenuName() + " (" + sizeOptionName + ")";
+                requests.add(CafeTwosomeRequestBody.builder().menuCode(request.getMenuCode())
+                    .temperatureOption(request.getTemperatureOption()).menuName(menuName)
+                    .sizeOption(sizeOption).build());
+            }
+            return requests;
+        });
     }
 
     /**
-     * just() 사용
+     * [{"ADD_INFO_TITLE": "당류(g/%)", "MENU_CNTNT": "24g/24%"}, ...] 형식의 응답을 한 번만 훑으며 모든 영양 성분을 채운다.
+     * 같은 항목이 여러 번 나오면 처음 값을 사용한다.
+     * <p>
+     * 한 객체 안에서 두 필드의 순서가 정해져 있지 않으므로, 객체 하나를 다 읽은 뒤 제목으로 영양 성분을 찾는다.
      */
-    private Flux<Beverage> parseInfo(String response, CafeTwosomeRequestBody request) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            Company cafe = new Cafe(CAFE_KOR_NAME);
-            String menuName = request.getMenuName();
-            if (jsonNode.isArray()) {
-                String calories = getNodeValue(jsonNode, "열량(Kcal)");
-                String sugar = getNodeValue(jsonNode, "당류(g/%)");
-                String protein = getNodeValue(jsonNode, "단백질(g/%)");
-                String saturatedFat = getNodeValue(jsonNode, "포화지방(g/%)");
-                String sodium = getNodeValue(jsonNode, "나트륨(mg/%)");
-                String caffeine = getNodeValue(jsonNode, "카페인(mg/%)");
-                CafeDrink drink = new CafeDrink(cafe, menuName, calories, sugar, protein,
-                    saturatedFat, sodium, caffeine);
-                return Flux.just(drink);
+    Flux<Beverage> parseInfo(Flux<DataBuffer> body, CafeTwosomeRequestBody request) {
+        return jsonResponseParser.parse(body, parser -> {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return List.of();
             }
-        } catch (Exception e) {
-            return Flux.error(new ParseException(response, e));
-        }
-        return Flux.empty();
+            double[] values = new double[Nutrient.values().length];
+            boolean[] found = new boolean[values.length];
+            while (JsonResponseParser.nextObject(parser)) {
+                String title = null;
+                String content = "";
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "ADD_INFO_TITLE" -> title = parser.getValueAsString();
+                        case "MENU_CNTNT" -> content = parser.getValueAsString("");
+                        default -> parser.skipChildren();
+                    }
+                }
+                Nutrient nutrient = title == null ? null : INFO_TITLES.get(title);
+                if (nutrient != null && !found[nutrient.ordinal()]) {
+                    found[nutrient.ordinal()] = true;
+                    values[nutrient.ordinal()] = NutritionValueParser.parse(content);
+                }
+            }
+            return List.of(new CafeDrink(cafe, request.getMenuName(),
+                values[Nutrient.CALORIES.ordinal()], values[Nutrient.SUGAR.ordinal()],
+                values[Nutrient.PROTEIN.ordinal()], values[Nutrient.SATURATED_FAT.ordinal()],
+                values[Nutrient.SODIUM.ordinal()], values[Nutrient.CAFFEINE.ordinal()]));
+        });
     }
 }
@@ -0,0 +1,160 @@
+package com.limhm.enemy.sugar.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Flux&lt;DataBuffer&gt;를 블로킹 InputStream으로 읽는다.
+ * <p>
+ * 한 번에 최대 demand개의 DataBuffer만 요청(backpressure)하므로, 응답 전체를 메모리에 모으지 않는다. 읽기는 블로킹이므로 이벤트 루프가
+ * 아닌 스레드에서 호출해야 한다. 이벤트 루프는 대기열에 넣기만 하고 블로킹되지 않는다.
+ * <p>
+ * 대기열의 크기는 demand에 종료 신호(END) 두 개를 더한 값이다. 하나는 onComplete()/onError(), 하나는 close()가 넣는다.
+ */
+class DataBufferInputStream extends InputStream implements Subscriber<DataBuffer> {
+
+    private static final Object END = new Object();
+
+    private final int demand;
+    private final int replenish;
+    private final BlockingQueue<Object> queue;
+    private Subscription subscription;
+    private DataBuffer current;
+    private int consumed;
+    private boolean ended;
+    private volatile boolean closed;
+
+    DataBufferInputStream(Publisher<DataBuffer> body, int demand) {
+        this.demand = Math.max(1, demand);
+        this.replenish = Math.max(1, this.demand / 2);
+        this.queue = new ArrayBlockingQueue<>(this.demand + 2);
+        body.subscribe(this);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(demand);
+    }
+
+    @Override
+    public void onNext(DataBuffer buffer) {
+        if (closed) {
+            DataBufferUtils.release(buffer);
+            return;
+        }
+        queue.offer(buffer);
+        // close()가 대기열을 비운 직후에 넣었으면 다시 비운다.
+        if (closed) {
+            discardQueue();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        queue.offer(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        queue.offer(END);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    /**
+     * 현재 DataBuffer를 다 읽으면 해제(release)하고, replenish개를 읽을 때마다 그만큼 다시 요청한다. 닫은 후에는 -1을 반환한다.
+     */
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            return -1;
+        }
+        if (length == 0) {
+            return 0;
+        }
+        while (current == null || current.readableByteCount() == 0) {
+            if (current != null) {
+                DataBufferUtils.release(current);
+                current = null;
+                if (++consumed == replenish) {
+                    consumed = 0;
+                    subscription.request(replenish);
+                }
+            }
+            if (ended || closed) {
+                return -1;
+            }
+            Object next = take();
+            if (closed) {
+                if (next instanceof DataBuffer buffer) {
+                    DataBufferUtils.release(buffer);
+                }
+                return -1;
+            }
+            if (next == END) {
+                ended = true;
+                return -1;
+            }
+            if (next instanceof Throwable throwable) {
+                ended = true;
+                throw new IOException(throwable);
+            }
+            current = (DataBuffer) next;
+        }
+        int count = Math.min(length, current.readableByteCount());
+        current.read(bytes, offset, count);
+        return count;
+    }
+
+    private Object take() throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    /**
+     * 끝까지 읽지 않고 닫으면 구독을 취소하고 남은 DataBuffer를 해제한다.
+     * <p>
+     * 다른 스레드가 take()에서 기다리고 있을 수 있으므로, 대기열을 비운 후 END를 넣어 깨운다. 깨어난 read()는 -1을 반환한다.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!ended && subscription != null) {
+            subscription.cancel();
+        }
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+        discardQueue();
+    }
+
+    private void discardQueue() {
+        for (Object next = queue.poll(); next != null; next = queue.poll()) {
+            if (next instanceof DataBuffer buffer) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+        queue.offer(END);
+    }
+}
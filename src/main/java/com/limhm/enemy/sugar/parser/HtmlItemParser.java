@@ -0,0 +1,97 @@
+package com.limhm.enemy.sugar.parser;
+
+import com.limhm.enemy.sugar.exception.ParseException;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * HTML 응답에서 cssQuery와 일치하는 메뉴 요소를 찾아 변환한다.
+ * <ul>
+ *     <li>streaming = true: StreamParser로 응답을 받는 대로 파싱하고, 요소의 닫는 태그를 만나면 바로 방출한다. 페이지 전체를
+ *     String이나 DOM으로 들고 있지 않으므로 메모리 사용량이 적고, 첫 메뉴가 더 빨리 전달된다.</li>
+ *     <li>streaming = false: 응답 전체를 String으로 모은 후 Jsoup.parse()로 파싱한다.</li>
+ * </ul>
+ * 카페 홈페이지는 모두 UTF-8이므로 UTF-8로 읽는다.
+ */
+@Component
+public class HtmlItemParser {
+
+    private final boolean streaming;
+    private final int prefetchBuffers;
+
+    public HtmlItemParser(@Value("${cafe.parse.html.streaming:true}") boolean streaming,
+        @Value("${cafe.parse.html.prefetch-buffers:16}") int prefetchBuffers) {
+        this.streaming = streaming;
+        this.prefetchBuffers = prefetchBuffers;
+    }
+
+    /**
+     * 변환 중 발생한 예외는 해당 요소의 HTML과 함께 ParseException으로 전달한다.
+     */
+    public <T> Flux<T> parse(Flux<DataBuffer> body, String cssQuery,
+        Function<Element, T> mapper) {
+        Flux<Element> items = streaming ? stream(body, cssQuery) : parseDocument(body, cssQuery);
+        return items.map(item -> {
+            try {
+                return mapper.apply(item);
+            } catch (RuntimeException e) {
+                throw new ParseException(item.outerHtml(), e);
+            }
+        });
+    }
+
+    /**
+     * using(): 구독할 때 StreamParser를 열고, 완료, 에러, 취소 시 닫는다.
+     * <p>
+     * generate(): 다운스트림이 요청할 때마다 selectNext()로 다음 요소를 하나씩 꺼낸다. 방출한 요소는 문서에서 제거(remove)해 파싱이 끝난
+     * 부분이 메모리에 쌓이지 않도록 한다.
+     * <p>
+     * subscribeOn(): 블로킹 읽기는 boundedElastic 스레드에서 실행한다.
+     */
+    private Flux<Element> stream(Flux<DataBuffer> body, String cssQuery) {
+        return Flux.using(() -> openStreamParser(body), parser -> Flux.<Element>generate(sink -> {
+                try {
+                    Element item = parser.selectNext(cssQuery);
+                    if (item == null) {
+                        sink.complete();
+                        return;
+                    }
+                    item.remove();
+                    sink.next(item);
+                } catch (Exception e) {
+                    sink.error(e);
+                }
+            }), StreamParser::close)
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * StreamParser는 mark()를 지원하는 Reader가 필요하므로 BufferedReader로 감싼다.
+     */
+    private StreamParser openStreamParser(Flux<DataBuffer> body) {
+        Reader reader = new BufferedReader(new InputStreamReader(
+            new DataBufferInputStream(body, prefetchBuffers), StandardCharsets.UTF_8));
+        return new StreamParser(Parser.htmlParser()).parse(reader, "");
+    }
+
+    private Flux<Element> parseDocument(Flux<DataBuffer> body, String cssQuery) {
+        return DataBufferUtils.join(body).map(buffer -> {
+            String html = buffer.toString(StandardCharsets.UTF_8);
+            DataBufferUtils.release(buffer);
+            return html;
+        }).flatMapIterable(html -> Jsoup.parse(html).select(cssQuery));
+    }
+}
@@ -0,0 +1,115 @@
+package com.limhm.enemy.sugar.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.limhm.enemy.sugar.exception.ParseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+/**
+ * JSON 응답을 JsonNode 트리나 String으로 만들지 않고, JsonParser로 토큰을 한 번만 읽어 변환한다.
+ * <p>
+ * JsonParser를 만드는 JsonFactory는 스레드 안전하고 생성 비용이 크므로, 스프링 부트가 등록한 ObjectMapper의 것을 모든 팩토리가
+ * 공유한다.
+ */
+@Component
+public class JsonResponseParser {
+
+    private final JsonFactory jsonFactory;
+
+    public JsonResponseParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 응답 한 건을 JsonParser로 읽는 함수. JsonParser는 응답의 첫 토큰 앞에 위치한다.
+     */
+    @FunctionalInterface
+    public interface ItemReader<T> {
+
+        List<T> read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * join(): 응답의 DataBuffer들을 하나로 합친다. asInputStream()으로 합친 버퍼를 그대로 읽으므로 byte[]나 String으로
+     * 복사하지 않는다.
+     * <p>
+     * 읽는 중 발생한 예외는 응답 본문과 함께 ParseException으로 전달한다.
+     */
+    public <T> Flux<T> parse(Flux<DataBuffer> body, ItemReader<T> reader) {
+        return DataBufferUtils.join(body).flatMapIterable(buffer -> {
+            int start = buffer.readPosition();
+            int length = buffer.readableByteCount();
+            try (InputStream inputStream = buffer.asInputStream();
+                JsonParser parser = jsonFactory.createParser(inputStream)) {
+                return reader.read(parser);
+            } catch (IOException | RuntimeException e) {
+                throw new ParseException(buffer.toString(start, length, StandardCharsets.UTF_8), e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        });
+    }
+
+    /**
+     * 현재 객체에서 fieldName 필드를 찾아 값 토큰으로 이동한다. 다른 필드의 값은 skipChildren()으로 건너뛴다.
+     * <p>
+     * 첫 토큰을 아직 읽지 않았다면 최상위 객체부터 찾는다. 필드가 없으면 false를 반환한다.
+     */
+    public static boolean moveToField(JsonParser parser, String fieldName) throws IOException {
+        if (!parser.hasCurrentToken() && parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (fieldName.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    /**
+     * 배열 안의 다음 객체로 이동한다. 객체가 아닌 원소는 건너뛰고, 배열이 끝나면 false를 반환한다.
+     */
+    public static boolean nextObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        while (token != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                return true;
+            }
+            parser.skipChildren();
+            token = parser.nextToken();
+        }
+        return false;
+    }
+
+    /**
+     * 현재 값 토큰을 영양 성분 값으로 읽는다. 숫자는 그대로, 문자열은 JsonParser의 문자 버퍼를 NutritionValueParser로 바로
+     * 읽으므로 String을 만들지 않는다. 그 외의 값은 0이다.
+     */
+    public static double doubleValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            int offset = parser.getTextOffset();
+            return NutritionValueParser.parse(CharBuffer.wrap(parser.getTextCharacters()), offset,
+                offset + parser.getTextLength());
+        }
+        parser.skipChildren();
+        return 0;
+    }
+}
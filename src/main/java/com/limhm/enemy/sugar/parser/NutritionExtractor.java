@@ -0,0 +1,210 @@
+package com.limhm.enemy.sugar.parser;
+
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.jsoup.select.QueryParser;
+
+/**
+ * 카페별로 "영양 성분 → 선택자" 매핑을 한 번만 선언하고, 메뉴 요소를 한 번만 순회해 모든 영양 성분을 채운다.
+ * <p>
+ * item.select(".cont_list li:contains(당류)")처럼 영양 성분마다 선택자 문자열을 파싱하고 하위 요소를 다시 탐색하지 않도록, 선택자는
+ * 생성 시점에 QueryParser.parse()로 Evaluator로 컴파일한다.
+ * <p>
+ * 영양 성분은 행(row) 단위로 찾는다. 행의 텍스트에 라벨(예: "당류")이 포함되어 있으면 해당 행의 값을 영양 성분의 값으로 사용한다.
+ */
+public class NutritionExtractor {
+
+    private final Evaluator nameQuery;
+    private final Function<Element, String> nameReader;
+    private final List<RowGroup> rowGroups;
+
+    private NutritionExtractor(Builder builder) {
+        this.nameQuery = builder.nameQuery;
+        this.nameReader = builder.nameReader;
+        this.rowGroups = List.copyOf(builder.rowGroups);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * NodeTraversor.traverse(): 메뉴 요소의 하위 요소를 깊이 우선으로 한 번만 방문하면서 이름과 모든 행을 찾는다. 찾지 못한 영양 성분은 0이다.
+     */
+    public CafeDrink extract(Element item, Company cafe) {
+        Extraction extraction = new Extraction(item);
+        NodeTraversor.traverse(extraction, item);
+        double[] values = extraction.values;
+        return new CafeDrink(cafe, extraction.name,
+            values[Nutrient.CALORIES.ordinal()], values[Nutrient.SUGAR.ordinal()],
+            values[Nutrient.PROTEIN.ordinal()], values[Nutrient.SATURATED_FAT.ordinal()],
+            values[Nutrient.SODIUM.ordinal()], values[Nutrient.CAFFEINE.ordinal()]);
+    }
+
+    /**
+     * 메뉴 요소 하나를 순회하는 동안의 상태. 같은 영양 성분이 여러 행에 있으면 처음 찾은 행을 사용한다.
+     */
+    private class Extraction implements NodeVisitor {
+
+        private static final int NUTRIENT_COUNT = Nutrient.values().length;
+
+        private final Element item;
+        private final double[] values = new double[NUTRIENT_COUNT];
+        private final boolean[] found = new boolean[NUTRIENT_COUNT];
+        private String name = "";
+        private boolean nameFound;
+
+        Extraction(Element item) {
+            this.item = item;
+        }
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            if (!nameFound && nameQuery.matches(item, element)) {
+                name = nameReader.apply(element);
+                nameFound = true;
+            }
+            for (RowGroup rowGroup : rowGroups) {
+                if (rowGroup.rowQuery.matches(item, element)) {
+                    rowGroup.read(element, values, found);
+                }
+            }
+        }
+    }
+
+    /**
+     * rowQuery와 일치하는 행에서 라벨을 찾고, valueLocator가 가리키는 요소의 텍스트를 NutritionValueParser로 파싱한다. 값이 행
+     * 자신이면 라벨 뒤부터 파싱한다. 예) "1회 제공량 355kcal" → 355
+     */
+    private static class RowGroup {
+
+        private final Evaluator rowQuery;
+        private final boolean ownText;
+        private final Function<Element, Element> valueLocator;
+        private final Map<String, Nutrient> labels;
+
+        RowGroup(Evaluator rowQuery, boolean ownText, Function<Element, Element> valueLocator,
+            Map<String, Nutrient> labels) {
+            this.rowQuery = rowQuery;
+            this.ownText = ownText;
+            this.valueLocator = valueLocator;
+            this.labels = labels;
+        }
+
+        void read(Element row, double[] values, boolean[] found) {
+            String rowText = ownText ? row.ownText() : row.text();
+            for (Map.Entry<String, Nutrient> label : labels.entrySet()) {
+                int index = label.getValue().ordinal();
+                int labelStart = found[index] ? -1 : rowText.indexOf(label.getKey());
+                if (labelStart < 0) {
+                    continue;
+                }
+                Element value = valueLocator == null ? row : valueLocator.apply(row);
+                if (value == row) {
+                    values[index] = NutritionValueParser.parse(rowText,
+                        labelStart + label.getKey().length(), rowText.length());
+                } else {
+                    values[index] = value == null ? 0 : NutritionValueParser.parse(value.text());
+                }
+                found[index] = true;
+                return;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private Evaluator nameQuery;
+        private Function<Element, String> nameReader = Element::text;
+        private final List<RowGroup> rowGroups = new ArrayList<>();
+
+        private Evaluator rowQuery;
+        private boolean ownText;
+        private Function<Element, Element> valueLocator;
+        private Map<String, Nutrient> labels;
+
+        public Builder name(String cssQuery) {
+            return name(cssQuery, Element::text);
+        }
+
+        public Builder name(String cssQuery, Function<Element, String> nameReader) {
+            this.nameQuery = QueryParser.parse(cssQuery);
+            this.nameReader = nameReader;
+            return this;
+        }
+
+        /**
+         * 행의 텍스트(하위 요소 포함, :contains와 같다)에서 라벨을 찾는 행 그룹을 시작한다.
+         */
+        public Builder rows(String cssQuery) {
+            return startRows(cssQuery, false);
+        }
+
+        /**
+         * 행 자신의 텍스트(:containsOwn과 같다)에서 라벨을 찾는 행 그룹을 시작한다.
+         */
+        public Builder rowsByOwnText(String cssQuery) {
+            return startRows(cssQuery, true);
+        }
+
+        /**
+         * 값이 행 안에 있는 요소이다. 예) li:contains(당류) div:nth-child(2)
+         */
+        public Builder valueIn(String cssQuery) {
+            Evaluator valueQuery = QueryParser.parse(cssQuery);
+            this.valueLocator = row -> row.selectFirst(valueQuery);
+            return this;
+        }
+
+        /**
+         * 값이 행의 다음 형제 요소이다. 예) dt:contains(당류) + dd
+         */
+        public Builder valueInNextSibling() {
+            this.valueLocator = Element::nextElementSibling;
+            return this;
+        }
+
+        public Builder field(Nutrient nutrient, String label) {
+            labels.put(label, nutrient);
+            return this;
+        }
+
+        public NutritionExtractor build() {
+            finishRows();
+            if (nameQuery == null) {
+                throw new IllegalStateException("이름 선택자가 없습니다.");
+            }
+            return new NutritionExtractor(this);
+        }
+
+        private Builder startRows(String cssQuery, boolean ownText) {
+            finishRows();
+            this.rowQuery = QueryParser.parse(cssQuery);
+            this.ownText = ownText;
+            this.valueLocator = null;
+            this.labels = new LinkedHashMap<>();
+            return this;
+        }
+
+        private void finishRows() {
+            if (rowQuery != null) {
+                rowGroups.add(new RowGroup(rowQuery, ownText, valueLocator, labels));
+                rowQuery = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.limhm.enemy.sugar.parser;
+
+/**
+ * 영양 성분 문자열에서 숫자를 한 번만 훑어 double로 반환한다. 정규식, 중간 String, Optional을 만들지 않는다.
+ * <ul>
+ *     <li>"포화지방 11.1g" → 11.1</li>
+ *     <li>"2shot : 156mg/45ml" → 156 ('/' 앞부분에서 마지막 ':' 뒤의 숫자)</li>
+ *     <li>"1,200" → 1200</li>
+ *     <li>"-", "" → 0</li>
+ * </ul>
+ */
+public final class NutritionValueParser {
+
+    /**
+     * 정수부와 소수부가 mantissa 하나를 함께 쓰므로 유효 숫자를 모두 합해 센다. 15자리(10^15 &lt; 2^53)까지는 double로 정확히
+     * 표현된다. 이보다 긴 소수부는 버리고, 이보다 긴 정수부는 버린 자릿수만큼 10을 곱한다.
+     */
+    private static final int MAX_SIGNIFICANT_DIGITS = 15;
+
+    /**
+     * double로 정확히 표현되는 10의 거듭제곱(10^0 ~ 10^22). 소수부는 이 범위까지만 읽는다.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private NutritionValueParser() {
+    }
+
+    public static double parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * text의 [from, to) 구간만 읽는다. 숫자를 찾지 못하면 0을 반환한다.
+     * <p>
+     * 정수부와 소수부를 하나의 long(mantissa)으로 모은 뒤 10의 거듭제곱으로 한 번만 나눈다. mantissa와 10의 거듭제곱이 모두
+     * double로 정확하고 나눗셈은 한 번만 반올림하므로, 유효 숫자가 15자리 이하이면 Double.parseDouble()과 같은 결과를 낸다.
+     */
+    public static double parse(CharSequence text, int from, int to) {
+        int end = to;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '/') {
+                end = i;
+                break;
+            }
+        }
+        int start = from;
+        for (int i = end - 1; i >= from; i--) {
+            if (text.charAt(i) == ':') {
+                start = i + 1;
+                break;
+            }
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int fractionDigits = 0;
+        int droppedIntegerDigits = 0;
+        boolean found = false;
+        boolean fraction = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                found = true;
+                if (significantDigits < MAX_SIGNIFICANT_DIGITS
+                    && (!fraction || fractionDigits < POWERS_OF_TEN.length - 1)) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    // 앞에 붙은 0은 유효 숫자가 아니다. 예) 0.05
+                    if (mantissa != 0) {
+                        significantDigits++;
+                    }
+                    if (fraction) {
+                        fractionDigits++;
+                    }
+                } else if (!fraction) {
+                    droppedIntegerDigits++;
+                }
+            } else if (c == '.' && !fraction && (found || isDigitAt(text, i + 1, end))) {
+                fraction = true;
+            } else if (c == ',' && found && !fraction) {
+                continue;
+            } else if (found) {
+                break;
+            }
+        }
+        if (!found) {
+            return 0;
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return droppedIntegerDigits == 0 ? value : value * Math.pow(10, droppedIntegerDigits);
+    }
+
+    private static boolean isDigitAt(CharSequence text, int index, int end) {
+        return index < end && text.charAt(index) >= '0' && text.charAt(index) <= '9';
+    }
+}
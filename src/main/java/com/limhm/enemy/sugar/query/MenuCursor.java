@@ -0,0 +1,64 @@
+package com.limhm.enemy.sugar.query;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 페이지의 마지막 메뉴 위치. 다음 페이지는 정렬 순서(영양 성분 값, 카페, 이름)에서 이 위치 다음부터 시작한다.
+ * <p>
+ * 순번(offset)이 아니라 마지막 메뉴의 값을 기억하므로, 페이지를 넘기는 사이에 인덱스가 새 스냅샷으로 바뀌어도 메뉴를 건너뛰거나 중복해서
+ * 반환하지 않는다.
+ */
+public class MenuCursor {
+
+    private static final String SEPARATOR = "\n";
+
+    private final double value;
+    private final String company;
+    private final String name;
+
+    private MenuCursor(double value, String company, String name) {
+        this.value = value;
+        this.company = company;
+        this.name = name;
+    }
+
+    public static MenuCursor of(Nutrient sort, Beverage beverage) {
+        return new MenuCursor(sort.getValue(beverage), beverage.getCompany().getKorName(),
+            beverage.getName());
+    }
+
+    /**
+     * 형식이 잘못된 커서는 IllegalArgumentException을 던진다.
+     */
+    public static MenuCursor decode(String encoded) {
+        String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(SEPARATOR, 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("잘못된 cursor: " + encoded);
+        }
+        return new MenuCursor(Double.parseDouble(parts[0]), parts[1], parts[2]);
+    }
+
+    public String encode() {
+        String raw = value + SEPARATOR + company + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 정렬 순서에서 커서가 beverage보다 앞이면 음수, 뒤면 양수를 반환한다.
+     */
+    public int compareTo(double beverageValue, String beverageCompany, String beverageName) {
+        int result = Double.compare(value, beverageValue);
+        if (result == 0) {
+            result = company.compareTo(beverageCompany);
+        }
+        if (result == 0) {
+            result = name.compareTo(beverageName);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,167 @@
+package com.limhm.enemy.sugar.query;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 모든 카페의 메뉴를 열(column) 단위 배열로 저장한 읽기 전용 인덱스.
+ * <ul>
+ *     <li>values[영양 성분][행]: 영양 성분마다 double[] 하나. 범위 조건은 Beverage 객체를 거치지 않고 배열만 읽는다.</li>
+ *     <li>cafeIds[행]: 카페 이름을 사전(cafeNames)의 번호로 바꾼 값. 사전은 이름 순이므로 번호 순서가 이름 순서와 같다.</li>
+ *     <li>orders[영양 성분][순위]: (영양 성분 값, 카페, 이름) 순으로 정렬한 행 번호. 정렬은 만들 때 한 번만 한다.</li>
+ * </ul>
+ * 조회는 배열을 읽기만 하고 객체를 만들지 않는다. select()는 호출한 쪽의 버퍼에 행 번호를 채우므로 힙 할당이 없다.
+ */
+public class MenuIndex {
+
+    private static final Nutrient[] NUTRIENTS = Nutrient.values();
+
+    public static final MenuIndex EMPTY = new MenuIndex(List.of());
+
+    private final Beverage[] beverages;
+    private final String[] names;
+    private final String[] cafeNames;
+    private final int[] cafeIds;
+    private final double[][] values;
+    private final int[][] orders;
+
+    public MenuIndex(Collection<Beverage> source) {
+        beverages = source.toArray(Beverage[]::new);
+        int size = beverages.length;
+        names = new String[size];
+        cafeNames = Arrays.stream(beverages).map(beverage -> beverage.getCompany().getKorName())
+            .distinct().sorted().toArray(String[]::new);
+        if (cafeNames.length > Long.SIZE) {
+            throw new IllegalStateException("카페는 " + Long.SIZE + "개까지 색인할 수 있습니다.");
+        }
+        cafeIds = new int[size];
+        values = new double[NUTRIENTS.length][size];
+        for (int row = 0; row < size; row++) {
+            Beverage beverage = beverages[row];
+            names[row] = beverage.getName();
+            cafeIds[row] = Arrays.binarySearch(cafeNames, beverage.getCompany().getKorName());
+            for (Nutrient nutrient : NUTRIENTS) {
+                values[nutrient.ordinal()][row] = nutrient.getValue(beverage);
+            }
+        }
+
+        orders = new int[NUTRIENTS.length][];
+        for (Nutrient nutrient : NUTRIENTS) {
+            double[] column = values[nutrient.ordinal()];
+            orders[nutrient.ordinal()] = IntStream.range(0, size).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(row -> column[row])
+                    .thenComparingInt(row -> cafeIds[row])
+                    .thenComparing(row -> names[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+    }
+
+    public int size() {
+        return beverages.length;
+    }
+
+    public Beverage beverage(int row) {
+        return beverages[row];
+    }
+
+    /**
+     * 커서 다음 위치부터 조건에 맞는 메뉴를 한 페이지 모은다. 한 개를 더 찾으면 다음 페이지가 있는 것이므로, 마지막으로 담은 메뉴의
+     * 커서를 함께 반환한다.
+     */
+    public MenuPage query(MenuQuery query) {
+        int[] rows = new int[query.getLimit() + 1];
+        int count = select(query, rows);
+        int size = Math.min(count, query.getLimit());
+
+        List<Beverage> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(beverages[rows[i]]);
+        }
+        String nextCursor = count > query.getLimit()
+            ? MenuCursor.of(query.getSort(), items.get(size - 1)).encode() : null;
+        return new MenuPage(items, nextCursor);
+    }
+
+    /**
+     * 정렬 순서(desc이면 역순)로 조건에 맞는 행 번호를 rows에 채우고 채운 개수를 반환한다. rows가 가득 차면 멈추므로 상위 N개
+     * 조회는 N개를 찾을 때까지만 훑는다.
+     */
+    public int select(MenuQuery query, int[] rows) {
+        int[] order = orders[query.getSort().ordinal()];
+        long cafeMask = cafeMask(query);
+        int step = query.isDescending() ? -1 : 1;
+        int count = 0;
+        for (int rank = start(query); rank >= 0 && rank < order.length && count < rows.length;
+            rank += step) {
+            int row = order[rank];
+            if (matches(row, query, cafeMask)) {
+                rows[count++] = row;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 카페 조건을 사전 번호의 비트로 바꾼다. 카페 조건이 없으면 모든 비트가 1이다.
+     */
+    private long cafeMask(MenuQuery query) {
+        if (query.getCafes().isEmpty()) {
+            return -1L;
+        }
+        long mask = 0L;
+        for (int id = 0; id < cafeNames.length; id++) {
+            if (query.getCafes().contains(cafeNames[id])) {
+                mask |= 1L << id;
+            }
+        }
+        return mask;
+    }
+
+    private boolean matches(int row, MenuQuery query, long cafeMask) {
+        if ((cafeMask & (1L << cafeIds[row])) == 0) {
+            return false;
+        }
+        double[] min = query.getMin();
+        double[] max = query.getMax();
+        for (int column = 0; column < values.length; column++) {
+            double value = values[column][row];
+            if (value < min[column] || value > max[column]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 이진 탐색으로 커서보다 뒤에 있는 첫 순위(asc) 또는 커서보다 앞에 있는 마지막 순위(desc)를 찾는다.
+     */
+    private int start(MenuQuery query) {
+        MenuCursor cursor = query.getCursor();
+        int[] order = orders[query.getSort().ordinal()];
+        if (cursor == null) {
+            return query.isDescending() ? order.length - 1 : 0;
+        }
+        double[] column = values[query.getSort().ordinal()];
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int row = order[mid];
+            int compared = cursor.compareTo(column[row], cafeNames[cafeIds[row]], names[row]);
+            boolean afterCursor = query.isDescending() ? compared <= 0 : compared < 0;
+            if (afterCursor) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return query.isDescending() ? low - 1 : low;
+    }
+}
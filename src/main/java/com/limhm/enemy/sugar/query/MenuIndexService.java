@@ -0,0 +1,53 @@
+package com.limhm.enemy.sugar.query;
+
+import com.limhm.enemy.sugar.cache.MenuSnapshotCache;
+import com.limhm.enemy.sugar.cache.MenuSnapshotEvent;
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 카페 스냅샷이 바뀔 때마다 MenuIndex를 새로 만들어 교체한다.
+ * <p>
+ * 조회는 AtomicReference에 있는 인덱스를 읽기만 하므로 잠금 없이 실행되고, 교체 중에도 이전 인덱스로 끝까지 응답한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuIndexService {
+
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final List<CafeFactory> factories;
+    private final Map<Company, List<Beverage>> menus = new ConcurrentHashMap<>();
+    private final AtomicReference<MenuIndex> index = new AtomicReference<>(MenuIndex.EMPTY);
+
+    /**
+     * synchronized: 두 카페의 스냅샷이 동시에 바뀌어도 나중에 만든 인덱스가 두 카페의 메뉴를 모두 포함한다.
+     */
+    @EventListener
+    public synchronized void onSnapshot(MenuSnapshotEvent event) {
+        menus.put(event.getCompany(), event.getSnapshot().getBeverages());
+        index.set(new MenuIndex(menus.values().stream().flatMap(List::stream).toList()));
+    }
+
+    /**
+     * getMenuWithinDeadline(): 스냅샷이 없거나 만료된 카페는 deadline까지 크롤링을 기다린다. 새 스냅샷은 onSnapshot()이 인덱스에
+     * 반영한다.
+     * <p>
+     * 한 카페가 실패해도 나머지 카페로 응답할 수 있도록 오류는 무시한다. 로그는 MenuSnapshotCache가 남긴다.
+     */
+    public Mono<MenuIndex> index() {
+        return Flux.fromIterable(factories)
+            .flatMap(factory -> menuSnapshotCache.getMenuWithinDeadline(factory)
+                .onErrorResume(e -> Mono.empty()))
+            .then(Mono.fromSupplier(index::get));
+    }
+}
@@ -0,0 +1,17 @@
+package com.limhm.enemy.sugar.query;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 조회 결과 한 페이지. 다음 페이지가 없으면 nextCursor는 null이다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MenuPage {
+
+    private final List<Beverage> items;
+    private final String nextCursor;
+}
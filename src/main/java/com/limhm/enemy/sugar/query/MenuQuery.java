@@ -0,0 +1,97 @@
+package com.limhm.enemy.sugar.query;
+
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * 메뉴 조회 조건
+ * <ul>
+ *     <li>cafe: 카페 이름. 여러 번 지정할 수 있고, 없으면 모든 카페</li>
+ *     <li>min{영양 성분}, max{영양 성분}: 범위(경계 포함). 예) maxCalories=100&amp;minCaffeine=50</li>
+ *     <li>sort: 정렬할 영양 성분(기본값 sugar), order: asc(기본값) 또는 desc</li>
+ *     <li>limit: 페이지 크기(기본값 50, 최대 500), cursor: 이전 페이지 응답의 X-Next-Cursor 헤더 값</li>
+ * </ul>
+ */
+@Getter
+public class MenuQuery {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private final Set<String> cafes;
+    private final double[] min;
+    private final double[] max;
+    private final Nutrient sort;
+    private final boolean descending;
+    private final int limit;
+    private final MenuCursor cursor;
+
+    private MenuQuery(Set<String> cafes, double[] min, double[] max, Nutrient sort,
+        boolean descending, int limit, MenuCursor cursor) {
+        this.cafes = cafes;
+        this.min = min;
+        this.max = max;
+        this.sort = sort;
+        this.descending = descending;
+        this.limit = limit;
+        this.cursor = cursor;
+    }
+
+    /**
+     * 요청 파라미터로 조회 조건을 만든다. 값이 잘못되면 IllegalArgumentException을 던진다.
+     */
+    public static MenuQuery from(MultiValueMap<String, String> params) {
+        List<String> cafes = params.get("cafe");
+        Nutrient[] nutrients = Nutrient.values();
+        double[] min = new double[nutrients.length];
+        double[] max = new double[nutrients.length];
+        for (Nutrient nutrient : nutrients) {
+            String suffix = Character.toUpperCase(nutrient.getParamName().charAt(0))
+                + nutrient.getParamName().substring(1);
+            min[nutrient.ordinal()] = parseDouble(params.getFirst("min" + suffix),
+                Double.NEGATIVE_INFINITY);
+            max[nutrient.ordinal()] = parseDouble(params.getFirst("max" + suffix),
+                Double.POSITIVE_INFINITY);
+        }
+
+        String order = params.getOrDefault("order", List.of("asc")).get(0);
+        if (!"asc".equals(order) && !"desc".equals(order)) {
+            throw new IllegalArgumentException("order는 asc 또는 desc입니다: " + order);
+        }
+        int limit = parseInt(params.getFirst("limit"), DEFAULT_LIMIT);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_LIMIT + " 이하입니다: " + limit);
+        }
+        String cursor = params.getFirst("cursor");
+
+        return new MenuQuery(cafes == null ? Set.of() : Set.copyOf(cafes), min, max,
+            parseSort(params.getFirst("sort")), "desc".equals(order), limit,
+            cursor == null || cursor.isEmpty() ? null : MenuCursor.decode(cursor));
+    }
+
+    private static Nutrient parseSort(String sort) {
+        if (sort == null) {
+            return Nutrient.SUGAR;
+        }
+        for (Nutrient nutrient : Nutrient.values()) {
+            if (nutrient.getParamName().equals(sort)) {
+                return nutrient;
+            }
+        }
+        throw new IllegalArgumentException("정렬할 수 없는 항목입니다: " + sort);
+    }
+
+    private static double parseDouble(String value, double defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+    }
+
+    /**
+     * 정수가 아니면(예: 2.5, 1e2) NumberFormatException(IllegalArgumentException)을 던진다.
+     */
+    private static int parseInt(String value, int defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,91 @@
+package com.limhm.enemy.sugar.repository;
+
+import com.limhm.enemy.sugar.cache.MenuSnapshot;
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 크롤링한 메뉴를 H2에 저장한다. 테이블과 인덱스는 schema.sql로 만든다.
+ * <p>
+ * JDBC는 블로킹 I/O이므로 이벤트 루프가 아닌 스레드(Schedulers.boundedElastic())에서 호출해야 한다.
+ */
+@Repository
+public class BeverageRepository {
+
+    private static final String MERGE = "MERGE INTO beverage (company, name, calories, sugar, "
+        + "protein, saturated_fat, sodium, caffeine, crawled_at) KEY (company, name) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_STALE =
+        "DELETE FROM beverage WHERE company = ? AND crawled_at < ?";
+    private static final String SELECT_BY_COMPANY = "SELECT name, calories, sugar, protein, "
+        + "saturated_fat, sodium, caffeine, crawled_at FROM beverage WHERE company = ? "
+        + "ORDER BY name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BeverageRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+        @Value("${cafe.menu.store.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 한 카페의 크롤링 결과를 하나의 트랜잭션으로 저장한다.
+     * <ul>
+     *     <li>batchUpdate(): batchSize개씩 MERGE 문을 모아 한 번에 전송한다. (company, name)이 같은 행은 갱신한다.</li>
+     *     <li>이번 크롤링에 없는 메뉴(crawled_at이 이전인 행)는 판매가 끝난 것으로 보고 삭제한다.</li>
+     * </ul>
+     * TIMESTAMP 열은 마이크로초까지 저장하므로 crawled_at도 마이크로초로 자른다. 나노초가 남아 있으면 방금 MERGE한 행이
+     * 반올림되어 crawled_at보다 이전 값으로 저장되고, 삭제 대상이 될 수 있다.
+     */
+    public void replace(Company company, MenuSnapshot snapshot) {
+        Instant fetchedAt = snapshot.getFetchedAt().truncatedTo(ChronoUnit.MICROS);
+        Timestamp crawledAt = Timestamp.from(fetchedAt);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(MERGE, snapshot.getBeverages(), batchSize, (ps, beverage) -> {
+                ps.setString(1, company.getKorName());
+                ps.setString(2, beverage.getName());
+                ps.setDouble(3, beverage.getCalories());
+                ps.setDouble(4, beverage.getSugar());
+                ps.setDouble(5, beverage.getProtein());
+                ps.setDouble(6, beverage.getSaturatedFat());
+                ps.setDouble(7, beverage.getSodium());
+                ps.setDouble(8, beverage.getCaffeine());
+                ps.setTimestamp(9, crawledAt);
+            });
+            jdbcTemplate.update(DELETE_STALE, company.getKorName(), crawledAt);
+        });
+    }
+
+    /**
+     * 마지막으로 저장한 크롤링 결과. 저장한 메뉴가 없으면 empty를 반환한다.
+     */
+    public Optional<MenuSnapshot> findSnapshot(Company company) {
+        Cafe cafe = new Cafe(company.getKorName());
+        Instant[] crawledAt = new Instant[1];
+        List<Beverage> beverages = jdbcTemplate.query(SELECT_BY_COMPANY, (rs, rowNum) -> {
+            crawledAt[0] = rs.getTimestamp("crawled_at").toInstant();
+            return new CafeDrink(cafe, rs.getString("name"), rs.getDouble("calories"),
+                rs.getDouble("sugar"), rs.getDouble("protein"), rs.getDouble("saturated_fat"),
+                rs.getDouble("sodium"), rs.getDouble("caffeine"));
+        }, company.getKorName());
+        if (beverages.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new MenuSnapshot(beverages, crawledAt[0]));
+    }
+}
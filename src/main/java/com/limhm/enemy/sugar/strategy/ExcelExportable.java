@@ -17,8 +17,10 @@ public interface ExcelExportable {
 
     /**
      * Abstract method: 구현 없이 선언된 메서드
+     * <p>
+     * 서식은 직접 생성하지 않고 워크북에 하나씩 있는 ExcelStyleRegistry에서 꺼내 쓴다.
      */
-    void writeRow(Row row);
+    void writeRow(Row row, ExcelStyleRegistry styles);
 
     /**
      * Default method: 본문을 가질 수 있는 메서드
@@ -0,0 +1,49 @@
+package com.limhm.enemy.sugar.strategy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * 워크북 하나에 대응하는 CellStyle 저장소
+ * <p>
+ * 엑셀 파일은 워크북당 약 64,000개의 스타일만 가질 수 있고, 스타일이 늘어날수록 스타일 테이블이 커져 저장이 느려진다. 행마다 스타일을 생성하지 않고
+ * 키로 미리 만든 스타일을 꺼내 쓴다.
+ */
+public class ExcelStyleRegistry {
+
+    /**
+     * 소수점 첫째 자리까지 표시하는 숫자 서식("0.0")
+     */
+    public static final String NUMERIC = "numeric";
+
+    private final Workbook workbook;
+    private final Map<String, CellStyle> styles = new HashMap<>();
+
+    public ExcelStyleRegistry(Workbook workbook) {
+        this.workbook = workbook;
+        register(NUMERIC, style -> style.setDataFormat(
+            workbook.getCreationHelper().createDataFormat().getFormat("0.0")));
+    }
+
+    /**
+     * computeIfAbsent(): 키가 없을 때만 스타일을 생성하므로, 같은 키로 여러 번 등록해도 스타일은 하나만 만들어진다.
+     */
+    public CellStyle register(String key, Consumer<CellStyle> initializer) {
+        return styles.computeIfAbsent(key, k -> {
+            CellStyle style = workbook.createCellStyle();
+            initializer.accept(style);
+            return style;
+        });
+    }
+
+    public CellStyle get(String key) {
+        CellStyle style = styles.get(key);
+        if (style == null) {
+            throw new IllegalArgumentException("등록되지 않은 스타일입니다: " + key);
+        }
+        return style;
+    }
+}
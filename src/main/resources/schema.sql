@@ -0,0 +1,15 @@
+-- 카페 메뉴 저장소. 크롤링할 때마다 (company, name)을 키로 MERGE한다.
+-- 기본 키 인덱스가 company로 시작하므로 카페별 조회는 기본 키 인덱스를 사용한다.
+-- 영양 성분 범위 조회와 정렬은 메모리의 MenuIndex가 맡으므로 영양 성분 인덱스는 만들지 않는다.
+CREATE TABLE IF NOT EXISTS beverage (
+    company       VARCHAR(50)      NOT NULL,
+    name          VARCHAR(255)     NOT NULL,
+    calories      DOUBLE PRECISION NOT NULL,
+    sugar         DOUBLE PRECISION NOT NULL,
+    protein       DOUBLE PRECISION NOT NULL,
+    saturated_fat DOUBLE PRECISION NOT NULL,
+    sodium        DOUBLE PRECISION NOT NULL,
+    caffeine      DOUBLE PRECISION NOT NULL,
+    crawled_at    TIMESTAMP        NOT NULL,
+    PRIMARY KEY (company, name)
+);
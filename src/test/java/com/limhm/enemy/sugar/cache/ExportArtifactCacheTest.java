@@ -0,0 +1,118 @@
+package com.limhm.enemy.sugar.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.export.ExportFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+
+class ExportArtifactCacheTest {
+
+    private final Cafe cafe = new Cafe("카페");
+    private final CountingFormat format = new CountingFormat();
+    private final ExportArtifactCache cache = cache();
+
+    @AfterEach
+    void clear() throws IOException {
+        cache.clear();
+    }
+
+    @Test
+    void sameVersionIsRenderedOnceAndFlushedOnClose() throws IOException {
+        ExportArtifact first = cache.get(menu("라떼"), format).block();
+        ExportArtifact second = cache.get(menu("라떼"), format).block();
+
+        assertThat(format.writes).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(Files.readString(first.getPath())).isEqualTo("라떼\n");
+    }
+
+    @Test
+    void evictingAnUnrequestedVersionDoesNotRenderIt() {
+        // 구독하지 않았으므로 작성을 시작하지 않은 버전
+        cache.get(menu("라떼"), format);
+
+        cache.get(menu("모카"), format).block();
+
+        assertThat(format.writes).hasValue(1);
+    }
+
+    @Test
+    void evictedFileIsDeletedAfterTheLastRelease() {
+        ExportArtifact latte = cache.get(menu("라떼"), format).block();
+
+        cache.get(menu("모카"), format).block().release();
+
+        assertThat(latte.getPath()).exists();
+        latte.release();
+        assertThat(latte.getPath()).doesNotExist();
+    }
+
+    private ExportArtifactCache cache() {
+        try {
+            return new ExportArtifactCache(new SimpleMeterRegistry(), 1);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, List<Beverage>> menu(String name) {
+        return Map.of(cafe.getKorName(), List.of(new CafeDrink(cafe, name, 1, 2, 3, 4, 5, 6)));
+    }
+
+    /**
+     * 한 줄에 음료 이름 하나를 쓴다. 버퍼보다 작게 쓰므로, 닫을 때 버퍼를 비워야 파일에 남는다.
+     */
+    private static class CountingFormat implements ExportFormat {
+
+        private final AtomicInteger writes = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return "text";
+        }
+
+        @Override
+        public MediaType getMediaType() {
+            return MediaType.TEXT_PLAIN;
+        }
+
+        @Override
+        public String getFileExtension() {
+            return "txt";
+        }
+
+        @Override
+        public boolean isCompressible() {
+            return false;
+        }
+
+        @Override
+        public <T extends Beverage> Mono<Void> write(Map<String, List<T>> sheetData,
+            OutputStream outputStream) {
+            return Mono.fromCallable(() -> {
+                writes.incrementAndGet();
+                for (List<T> sheet : sheetData.values()) {
+                    for (T beverage : sheet) {
+                        outputStream.write(
+                            (beverage.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                return writes;
+            }).then();
+        }
+    }
+}
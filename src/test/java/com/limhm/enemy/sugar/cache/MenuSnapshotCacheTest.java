@@ -0,0 +1,87 @@
+package com.limhm.enemy.sugar.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Company;
+import com.limhm.enemy.sugar.factory.CafeFactory;
+import com.limhm.enemy.sugar.repository.BeverageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+
+class MenuSnapshotCacheTest {
+
+    private final Company cafe = new Cafe("카페");
+    private final BeverageRepository repository = repository();
+
+    @Test
+    void duplicateNamesKeepTheLastValueAtTheFirstPosition() {
+        List<Beverage> menu = List.of(drink("라떼", 100), drink("모카", 200), drink("라떼", 150));
+
+        assertThat(MenuSnapshotCache.distinctByName(menu)).extracting(MenuSnapshotCacheTest::row)
+            .containsExactly("라떼 150.0", "모카 200.0");
+    }
+
+    @Test
+    void warmCacheAndColdStartServeTheSameMenu() {
+        CafeFactory factory = factory(drink("라떼", 100), drink("모카", 200), drink("라떼", 150));
+
+        List<Beverage> warm = cache().getMenu(factory).block();
+        // 재시작한 것처럼 새 캐시를 만든다. 크롤링 결과가 없으므로 저장소의 메뉴로 응답한다.
+        List<Beverage> cold = cache().getMenu(factory()).block();
+
+        assertThat(warm).extracting(MenuSnapshotCacheTest::row)
+            .containsExactly("라떼 150.0", "모카 200.0");
+        assertThat(cold).extracting(MenuSnapshotCacheTest::row)
+            .containsExactlyInAnyOrderElementsOf(warm.stream().map(MenuSnapshotCacheTest::row)
+                .toList());
+    }
+
+    private MenuSnapshotCache cache() {
+        return new MenuSnapshotCache(repository, event -> {
+        }, new MenuDeadlineProperties(), new SimpleMeterRegistry(), Duration.ofHours(6),
+            Duration.ofMinutes(30));
+    }
+
+    private CafeFactory factory(Beverage... beverages) {
+        return new CafeFactory() {
+            @Override
+            public Flux<Beverage> createBeverage() {
+                return Flux.just(beverages);
+            }
+
+            @Override
+            public Company getCompany() {
+                return cafe;
+            }
+        };
+    }
+
+    private Beverage drink(String name, double calories) {
+        return new CafeDrink(cafe, name, calories, 1, 2, 3, 4, 5);
+    }
+
+    private static String row(Beverage beverage) {
+        return beverage.getName() + " " + beverage.getCalories();
+    }
+
+    private static BeverageRepository repository() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + MenuSnapshotCacheTest.class.getSimpleName() + System.nanoTime()
+                + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return new BeverageRepository(new JdbcTemplate(dataSource),
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)), 500);
+    }
+}
@@ -0,0 +1,108 @@
+package com.limhm.enemy.sugar.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.exception.CircuitOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+class ConditionalFetcherTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private final Cafe cafe = new Cafe("카페");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConditionalFetcher fetcher = new ConditionalFetcher(meterRegistry);
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+    private final AtomicInteger parses = new AtomicInteger();
+    private DisposableServer server;
+    private WebClient webClient;
+
+    /**
+     * If-None-Match가 현재 ETag와 같으면 본문 없이 304로 응답한다.
+     */
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create().port(0)
+            .route(routes -> routes.get("/menu", (request, response) -> {
+                String validator = request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH);
+                ifNoneMatch.add(String.valueOf(validator));
+                if (ETAG.equals(validator)) {
+                    return response.status(HttpStatus.NOT_MODIFIED.value()).send();
+                }
+                return response.header(HttpHeaders.ETAG, ETAG).sendString(Mono.just("라떼,모카"));
+            }))
+            .bindNow();
+        webClient = WebClient.create("http://localhost:" + server.port());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void notModifiedReusesTheStoredMenuWithoutParsing() {
+        List<String> first = names(fetch(webClient));
+        List<String> second = names(fetch(webClient));
+
+        assertThat(first).containsExactly("라떼", "모카");
+        assertThat(second).isEqualTo(first);
+        assertThat(ifNoneMatch).containsExactly("null", ETAG);
+        assertThat(parses).hasValue(1);
+        assertThat(meterRegistry.counter("cafe.fetch.conditional", "cafe", "카페",
+            "result", "not-modified").count()).isEqualTo(1);
+    }
+
+    @Test
+    void openCircuitFallsBackToTheStoredMenu() {
+        fetch(webClient);
+        WebClient open = webClient.mutate()
+            .filter((request, next) -> Mono.error(new CircuitOpenException("localhost")))
+            .build();
+
+        assertThat(names(fetch(open))).containsExactly("라떼", "모카");
+    }
+
+    private List<Beverage> fetch(WebClient client) {
+        return fetcher.fetch("카페", "/menu", client.get().uri("/menu"), parser())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+    }
+
+    private Function<Flux<DataBuffer>, Flux<Beverage>> parser() {
+        return body -> DataBufferUtils.join(body)
+            .flatMapMany(buffer -> {
+                parses.incrementAndGet();
+                String text = buffer.toString(StandardCharsets.UTF_8);
+                DataBufferUtils.release(buffer);
+                return Flux.fromIterable(Arrays.asList(text.split(",")));
+            })
+            .map(name -> new CafeDrink(cafe, name, 1, 2, 3, 4, 5, 6));
+    }
+
+    private static List<String> names(List<Beverage> beverages) {
+        return beverages.stream().map(Beverage::getName).toList();
+    }
+}
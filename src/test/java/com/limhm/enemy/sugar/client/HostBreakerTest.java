@@ -0,0 +1,109 @@
+package com.limhm.enemy.sugar.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.client.FetchProperties.Resilience;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class HostBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final HostBreaker breaker = breaker(3, Duration.ofSeconds(30));
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(state()).isEqualTo("CLOSED");
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(state()).isEqualTo("OPEN");
+        assertThat(breaker.stats().getFailures()).isEqualTo(5);
+    }
+
+    @Test
+    void openCircuitShortCircuitsUntilTheOpenDurationPasses() {
+        open();
+
+        advance(Duration.ofSeconds(30).minusNanos(1));
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.stats().getShortCircuited()).isEqualTo(2);
+
+        advance(Duration.ofNanos(1));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(state()).isEqualTo("HALF_OPEN");
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() {
+        open();
+        advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onSuccess();
+
+        assertThat(state()).isEqualTo("CLOSED");
+        assertThat(breaker.stats().getConsecutiveFailures()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void failedTrialReopensForAnotherOpenDuration() {
+        open();
+        advance(Duration.ofSeconds(30));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(state()).isEqualTo("OPEN");
+        advance(Duration.ofSeconds(29));
+        assertThat(breaker.tryAcquire()).isFalse();
+        advance(Duration.ofSeconds(1));
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void cancelledTrialLetsTheNextRequestTry() {
+        open();
+        advance(Duration.ofSeconds(30));
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onCancel();
+
+        assertThat(state()).isEqualTo("HALF_OPEN");
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertThat(state()).isEqualTo("OPEN");
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private String state() {
+        return breaker.stats().getState();
+    }
+
+    private HostBreaker breaker(int failureThreshold, Duration openDuration) {
+        Resilience resilience = new Resilience();
+        resilience.setFailureThreshold(failureThreshold);
+        resilience.setOpenDuration(openDuration);
+        return new HostBreaker(resilience, now::get);
+    }
+}
@@ -0,0 +1,169 @@
+package com.limhm.enemy.sugar.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.client.FetchProperties.HostLimit;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class HostLaneTest {
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final List<Integer> started = new ArrayList<>();
+    private final List<Runnable> releases = new ArrayList<>();
+
+    @Test
+    void tokenBucketStartsTheBurstThenRefillsAtTheConfiguredRate() {
+        HostLane lane = lane(10, 2, 2);
+        for (int i = 0; i < 5; i++) {
+            lane.submit(quick(i)).subscribe();
+        }
+        assertThat(started).containsExactly(0, 1);
+
+        scheduler.advanceTimeBy(Duration.ofMillis(499));
+        assertThat(started).containsExactly(0, 1);
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+        assertThat(started).containsExactly(0, 1, 2);
+        scheduler.advanceTimeBy(Duration.ofMillis(1000));
+        assertThat(started).containsExactly(0, 1, 2, 3, 4);
+        assertThat(lane.stats().getMaxWaitMillis()).isEqualTo(1500.0);
+    }
+
+    @Test
+    void idleTimeRefillsNoMoreThanTheBurst() {
+        HostLane lane = lane(10, 2, 2);
+        scheduler.advanceTimeBy(Duration.ofSeconds(10));
+        for (int i = 0; i < 4; i++) {
+            lane.submit(quick(i)).subscribe();
+        }
+
+        assertThat(started).containsExactly(0, 1);
+        assertThat(lane.stats().getQueueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void queuedRequestsStartInSubmissionOrder() {
+        HostLane lane = lane(1, 0, 1);
+        for (int i = 0; i < 3; i++) {
+            lane.submit(held(i)).subscribe();
+        }
+        assertThat(started).containsExactly(0);
+        assertThat(lane.stats().getQueueDepth()).isEqualTo(2);
+
+        releases.get(0).run();
+        assertThat(started).containsExactly(0, 1);
+        releases.get(1).run();
+        assertThat(started).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void releaseReturnsTheSlotOnlyOnce() {
+        HostLane lane = lane(1, 0, 1);
+        for (int i = 0; i < 3; i++) {
+            lane.submit(held(i)).subscribe();
+        }
+
+        releases.get(0).run();
+        releases.get(0).run();
+
+        assertThat(started).containsExactly(0, 1);
+        assertThat(lane.stats().getInFlight()).isEqualTo(1);
+        assertThat(lane.stats().getQueueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void requestsThatEmitNothingReturnTheSlotWithoutRelease() {
+        HostLane lane = lane(1, 0, 1);
+        lane.submit(release -> Mono.error(new IllegalStateException())).subscribe(
+            value -> {
+            }, error -> {
+            });
+        lane.submit(release -> Mono.empty()).subscribe();
+
+        assertThat(lane.stats().getInFlight()).isZero();
+        assertThat(lane.stats().getStarted()).isEqualTo(2);
+    }
+
+    @Test
+    void cancellingARunningRequestCancelsItAndReturnsTheSlot() {
+        HostLane lane = lane(1, 0, 1);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Disposable subscription = lane.submit(
+            release -> Mono.never().doOnCancel(() -> cancelled.set(true))).subscribe();
+
+        subscription.dispose();
+
+        assertThat(cancelled).isTrue();
+        assertThat(lane.stats().getInFlight()).isZero();
+    }
+
+    @Test
+    void cancellingAQueuedRequestRemovesItFromTheQueue() {
+        HostLane lane = lane(1, 0, 1);
+        lane.submit(held(0)).subscribe();
+        Disposable queued = lane.submit(held(1)).subscribe();
+
+        queued.dispose();
+        releases.get(0).run();
+
+        assertThat(started).containsExactly(0);
+        assertThat(lane.stats().getQueueDepth()).isZero();
+        assertThat(lane.stats().getInFlight()).isZero();
+    }
+
+    /**
+     * 요청을 시작하는 도중(request.apply())에 취소되면, Pending.dispose()가 start()보다 먼저 실행된다. start()는 구독한 뒤
+     * disposed를 확인해 바로 취소해야 한다.
+     */
+    @Test
+    void cancelWhileStartingDisposesTheNewSubscription() {
+        HostLane lane = lane(1, 0, 1);
+        lane.submit(held(0)).subscribe();
+        AtomicReference<Disposable> subscription = new AtomicReference<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        subscription.set(lane.submit(release -> {
+            subscription.get().dispose();
+            return Mono.never().doOnCancel(() -> cancelled.set(true));
+        }).subscribe());
+
+        releases.get(0).run();
+
+        assertThat(cancelled).isTrue();
+        assertThat(lane.stats().getInFlight()).isZero();
+    }
+
+    private HostLane lane(int maxInFlight, double permitsPerSecond, int burst) {
+        HostLimit limit = new HostLimit();
+        limit.setMaxInFlight(maxInFlight);
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        return new HostLane(limit, scheduler, () -> scheduler.now(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * 값을 방출하지 않고 끝나므로 바로 동시 실행 수를 반환한다.
+     */
+    private Function<Runnable, Mono<Integer>> quick(int id) {
+        return release -> Mono.fromRunnable(() -> started.add(id));
+    }
+
+    /**
+     * 값을 방출하므로 releases의 release를 호출할 때까지 동시 실행 수를 차지한다.
+     */
+    private Function<Runnable, Mono<Integer>> held(int id) {
+        return release -> Mono.fromCallable(() -> {
+            started.add(id);
+            releases.add(release);
+            return id;
+        });
+    }
+}
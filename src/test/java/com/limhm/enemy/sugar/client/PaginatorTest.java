@@ -0,0 +1,102 @@
+package com.limhm.enemy.sugar.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+class PaginatorTest {
+
+    private static final int LAST_PAGE = 3;
+
+    private DisposableServer server;
+    private FetchScheduler fetchScheduler;
+    private Paginator paginator;
+    private WebClient webClient;
+
+    /**
+     * 1~3 페이지에만 메뉴가 있다. 4 페이지는 바로 빈 응답을 주고, 그 뒤의 페이지는 늦게 응답하므로 4 페이지를 받았을 때 아직
+     * 응답을 기다리고 있다.
+     */
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create().port(0)
+            .route(routes -> routes.get("/page/{page}", (request, response) -> {
+                int page = Integer.parseInt(request.param("page"));
+                if (page == 404) {
+                    return response.status(HttpStatus.NOT_FOUND.value()).send();
+                }
+                if (page <= LAST_PAGE) {
+                    return response.sendString(Mono.just("a" + page + ",b" + page));
+                }
+                Duration delay = Duration.ofMillis(page == LAST_PAGE + 1 ? 0 : 500);
+                return response.sendString(Mono.just("").delayElement(delay));
+            }))
+            .bindNow();
+        FetchProperties properties = new FetchProperties();
+        properties.getDefaults().setMaxInFlight(4);
+        properties.getDefaults().setPermitsPerSecond(0);
+        properties.getPagination().setLookAhead(4);
+        properties.getPagination().setMaxPages(20);
+        fetchScheduler = new FetchScheduler(properties);
+        paginator = new Paginator(properties);
+        webClient = WebClient.builder().baseUrl("http://localhost:" + server.port())
+            .filter(new SingleFlightFilter(new SimpleMeterRegistry()).filter())
+            .filter(fetchScheduler.filter())
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void crawlPastTheLastPageReturnsTheLookAheadSlots() {
+        List<String> items = paginator.paginate(1, this::fetchPage, Function.identity())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(items).containsExactly("a1", "b1", "a2", "b2", "a3", "b3");
+        await().atMost(Duration.ofSeconds(2))
+            .until(() -> fetchScheduler.stats().get("localhost").getInFlight() == 0);
+    }
+
+    @Test
+    void repeatedPageStopsPagination() {
+        List<String> items = paginator.paginate(1, page -> fetchPage(Math.min(page, 2)),
+                Function.identity())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(items).containsExactly("a1", "b1", "a2", "b2");
+    }
+
+    @Test
+    void notFoundPageStopsPagination() {
+        List<String> items = paginator.paginate(1, page -> fetchPage(page == 2 ? 404 : page),
+                Function.identity())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(items).containsExactly("a1", "b1");
+    }
+
+    private Flux<String> fetchPage(int page) {
+        return webClient.get().uri("/page/{page}", page).retrieve()
+            .bodyToMono(String.class)
+            .flatMapMany(body -> Flux.fromArray(body.split(",")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.limhm.enemy.sugar.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+class ResponseMemoTest {
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 60})
+    void successfulBodyIsFetchedOnce(long ttlSeconds) {
+        ResponseMemo memo = memo(ttlSeconds);
+
+        assertThat(read(memo.body("menu", fetch(0)))).isEqualTo("메뉴");
+        assertThat(read(memo.body("menu", fetch(0)))).isEqualTo("메뉴");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 60})
+    void failedBodyIsFetchedAgain(long ttlSeconds) {
+        ResponseMemo memo = memo(ttlSeconds);
+        Flux<DataBuffer> failsOnce = fetch(1);
+
+        assertThatThrownBy(() -> read(memo.body("menu", failsOnce)))
+            .hasMessageContaining("일시적인 오류");
+        assertThat(read(memo.body("menu", failsOnce))).isEqualTo("메뉴");
+        assertThat(read(memo.body("menu", failsOnce))).isEqualTo("메뉴");
+        assertThat(fetches).hasValue(2);
+    }
+
+    private ResponseMemo memo(long ttlSeconds) {
+        return new ResponseMemo(Duration.ofSeconds(ttlSeconds), new SimpleMeterRegistry(), "카페");
+    }
+
+    /**
+     * 구독할 때마다 fetches를 세고, 처음 failures번은 실패한다.
+     */
+    private Flux<DataBuffer> fetch(int failures) {
+        return Flux.defer(() -> fetches.incrementAndGet() <= failures
+            ? Flux.error(new IllegalStateException("일시적인 오류"))
+            : Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(
+                "메뉴".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static String read(Flux<DataBuffer> body) {
+        return DataBufferUtils.join(body)
+            .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+            .block();
+    }
+}
@@ -0,0 +1,97 @@
+package com.limhm.enemy.sugar.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+class SingleFlightFilterTest {
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DisposableServer server;
+    private FetchScheduler fetchScheduler;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create().port(0)
+            .route(routes -> routes
+                .get("/menu", (request, response) -> {
+                    hits.incrementAndGet();
+                    return response.sendString(
+                        Mono.just("menu").delayElement(Duration.ofMillis(200)));
+                })
+                .get("/slow", (request, response) -> {
+                    hits.incrementAndGet();
+                    return response.sendString(
+                        Mono.just("slow").delayElement(Duration.ofMillis(500)));
+                }))
+            .bindNow();
+        FetchProperties properties = new FetchProperties();
+        properties.getDefaults().setMaxInFlight(2);
+        properties.getDefaults().setPermitsPerSecond(0);
+        fetchScheduler = new FetchScheduler(properties);
+        webClient = WebClient.builder().baseUrl("http://localhost:" + server.port())
+            .filter(new SingleFlightFilter(meterRegistry).filter())
+            .filter(fetchScheduler.filter())
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void joinersShareOneUpstreamResponse() {
+        List<String> bodies = Flux.range(0, 3)
+            .flatMap(i -> webClient.get().uri("/menu").retrieve().bodyToMono(String.class))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(bodies).containsExactly("menu", "menu", "menu");
+        assertThat(hits).hasValue(1);
+        assertThat(meterRegistry.counter("cafe.fetch.coalesced", "host", "localhost").count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void finishedFlightIsNotReused() {
+        webClient.get().uri("/menu").retrieve().bodyToMono(String.class).block();
+        webClient.get().uri("/menu").retrieve().bodyToMono(String.class).block();
+
+        assertThat(hits).hasValue(2);
+    }
+
+    @Test
+    void cancelledCallersReturnTheHostSlot() {
+        Flux.merge(slowRequest(), slowRequest(), webClient.get().uri("/menu").retrieve()
+                .bodyToMono(String.class).timeout(Duration.ofMillis(50)))
+            .onErrorResume(TimeoutException.class, e -> Mono.empty())
+            .blockLast(Duration.ofSeconds(5));
+
+        await().atMost(Duration.ofSeconds(2))
+            .until(() -> fetchScheduler.stats().get("localhost").getInFlight() == 0);
+        assertThat(webClient.get().uri("/menu").retrieve().bodyToMono(String.class)
+            .block(Duration.ofSeconds(2))).isEqualTo("menu");
+    }
+
+    private Mono<String> slowRequest() {
+        return webClient.get().uri("/slow").retrieve().bodyToMono(String.class)
+            .timeout(Duration.ofMillis(50))
+            .onErrorResume(TimeoutException.class, e -> Mono.empty());
+    }
+}
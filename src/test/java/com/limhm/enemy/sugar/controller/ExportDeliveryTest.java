@@ -0,0 +1,134 @@
+package com.limhm.enemy.sugar.controller;
+
+import static org.awaitility.Awaitility.await;
+
+import com.limhm.enemy.sugar.cache.ExportArtifact;
+import com.limhm.enemy.sugar.export.CsvExportFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * 실제 응답처럼 RangeFilter와 ExchangeCompletionFilter를 거쳐, ResourceHttpMessageWriter가 Range에 맞춰 본문을 쓴다.
+ */
+class ExportDeliveryTest {
+
+    private static final String BODY = "카페,이름\n스타벅스,라떼\n";
+    private static final String ETAG = "\"v1.csv\"";
+
+    private final AtomicInteger releases = new AtomicInteger();
+    private Path path;
+    private ExportArtifact artifact;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("menu", ".csv");
+        Files.writeString(path, BODY);
+        artifact = new ExportArtifact("v1.csv", new CsvExportFormat(), path, Files.size(path),
+            null, 0) {
+            @Override
+            public void release() {
+                releases.incrementAndGet();
+                super.release();
+            }
+        };
+        client = WebTestClient.bindToController(new DownloadController())
+            .webFilter(new RangeFilter(), new ExchangeCompletionFilter())
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void withoutRangeSendsTheWholeFile() {
+        client.get().uri("/down").exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, ETAG)
+            .expectHeader().contentLength(BODY.getBytes(StandardCharsets.UTF_8).length)
+            .expectBody(String.class).isEqualTo(BODY);
+    }
+
+    @Test
+    void rangeSendsPartialContent() {
+        client.get().uri("/down").header(HttpHeaders.RANGE, "bytes=0-5").exchange()
+            .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+            .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 0-5/" + length())
+            .expectBody(String.class).isEqualTo("카페");
+    }
+
+    @Test
+    void matchingIfRangeKeepsTheRange() {
+        client.get().uri("/down").header(HttpHeaders.RANGE, "bytes=6-")
+            .header(HttpHeaders.IF_RANGE, ETAG).exchange()
+            .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+            .expectBody(String.class).isEqualTo(BODY.substring(2));
+    }
+
+    @Test
+    void staleIfRangeSendsTheWholeFileWithOk() {
+        client.get().uri("/down").header(HttpHeaders.RANGE, "bytes=6-")
+            .header(HttpHeaders.IF_RANGE, "\"v0.csv\"").exchange()
+            .expectStatus().isOk()
+            .expectHeader().doesNotExist(HttpHeaders.CONTENT_RANGE)
+            .expectBody(String.class).isEqualTo(BODY);
+    }
+
+    @Test
+    void weakIfRangeNeverMatches() {
+        client.get().uri("/down").header(HttpHeaders.RANGE, "bytes=6-")
+            .header(HttpHeaders.IF_RANGE, "W/" + ETAG).exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class).isEqualTo(BODY);
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() {
+        client.get().uri("/down").header(HttpHeaders.RANGE, "bytes=1000-2000").exchange()
+            .expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */" + length());
+    }
+
+    @Test
+    void leaseIsReturnedWhenTheResponseEnds() {
+        client.get().uri("/down").header(HttpHeaders.RANGE, "bytes=0-5").exchange()
+            .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        client.get().uri("/down").exchange().expectStatus().isOk();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> releases.get() == 2);
+    }
+
+    private long length() {
+        return BODY.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @RestController
+    class DownloadController {
+
+        private final ExportDelivery delivery = new ExportDelivery(new SimpleMeterRegistry());
+
+        @GetMapping("/down")
+        ResponseEntity<Resource> download(ServerWebExchange exchange) {
+            artifact.acquire();
+            return delivery.respond(artifact, exchange);
+        }
+    }
+}
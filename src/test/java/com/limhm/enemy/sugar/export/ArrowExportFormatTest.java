@@ -0,0 +1,120 @@
+package com.limhm.enemy.sugar.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 작성한 스트림을 Arrow Java의 ArrowStreamReader로 읽어, 다른 Arrow 구현이 읽을 수 있는 형식인지 확인한다.
+ */
+class ArrowExportFormatTest {
+
+    private final ArrowExportFormat format = new ArrowExportFormat();
+
+    @Test
+    void schemaHasTextColumnsAndOneDoubleColumnPerNutrient() throws IOException {
+        try (BufferAllocator allocator = new RootAllocator();
+            ArrowStreamReader reader = reader(allocator, write(sheets()))) {
+            List<Field> fields = reader.getVectorSchemaRoot().getSchema().getFields();
+
+            List<String> names = new ArrayList<>(List.of("cafe", "name"));
+            Arrays.stream(Nutrient.values()).map(Nutrient::getParamName).forEach(names::add);
+            assertThat(fields).extracting(Field::getName).containsExactlyElementsOf(names);
+            assertThat(fields.subList(0, 2)).allSatisfy(field -> {
+                assertThat(field.getType()).isEqualTo(ArrowType.Utf8.INSTANCE);
+                assertThat(field.isNullable()).isFalse();
+            });
+            assertThat(fields.subList(2, fields.size())).allSatisfy(field -> {
+                assertThat(field.getType())
+                    .isEqualTo(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE));
+                assertThat(field.isNullable()).isFalse();
+            });
+        }
+    }
+
+    @Test
+    void eachSheetIsOneRecordBatchWithItsRows() throws IOException {
+        Map<String, List<Beverage>> sheets = sheets();
+        List<List<String>> rows = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        try (BufferAllocator allocator = new RootAllocator();
+            ArrowStreamReader reader = reader(allocator, write(sheets))) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            while (reader.loadNextBatch()) {
+                batchSizes.add(root.getRowCount());
+                for (int row = 0; row < root.getRowCount(); row++) {
+                    rows.add(row(root, row));
+                }
+            }
+        }
+
+        assertThat(batchSizes).containsExactly(2, 0, 1);
+        assertThat(rows).containsExactly(
+            List.of("카페,A", "라떼 \"big\"", "120.0", "3.5", "10.0", "2.0", "80.0", "75.0"),
+            List.of("카페,A", "아메리카노", "5.0", "0.0", "0.0", "0.0", "5.0", "150.0"),
+            List.of("B", "가😀".repeat(100), "0.1", "-1.25", "1.0E20", "NaN", "0.0", "1.0"));
+    }
+
+    @Test
+    void emptyExportIsASchemaOnlyStream() throws IOException {
+        try (BufferAllocator allocator = new RootAllocator();
+            ArrowStreamReader reader = reader(allocator, write(Map.of()))) {
+            assertThat(reader.getVectorSchemaRoot().getSchema().getFields()).hasSize(8);
+            assertThat(reader.loadNextBatch()).isFalse();
+        }
+    }
+
+    private static Map<String, List<Beverage>> sheets() {
+        Cafe a = new Cafe("카페,A");
+        Cafe b = new Cafe("B");
+        Map<String, List<Beverage>> sheets = new LinkedHashMap<>();
+        sheets.put("카페,A", List.of(new CafeDrink(a, "라떼 \"big\"", 120, 3.5, 10, 2, 80, 75),
+            new CafeDrink(a, "아메리카노", 5, 0, 0, 0, 5, 150)));
+        sheets.put("빈 카페", List.of());
+        sheets.put("B", List.of(new CafeDrink(b, "가😀".repeat(100), 0.1, -1.25, 1e20,
+            Double.NaN, 0, 1)));
+        return sheets;
+    }
+
+    private byte[] write(Map<String, List<Beverage>> sheets) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        format.write(sheets, output).block();
+        return output.toByteArray();
+    }
+
+    private static ArrowStreamReader reader(BufferAllocator allocator, byte[] stream) {
+        return new ArrowStreamReader(new ByteArrayInputStream(stream), allocator);
+    }
+
+    private static List<String> row(VectorSchemaRoot root, int row) {
+        List<String> values = new ArrayList<>();
+        values.add(((VarCharVector) root.getVector("cafe")).getObject(row).toString());
+        values.add(((VarCharVector) root.getVector("name")).getObject(row).toString());
+        for (Nutrient nutrient : Nutrient.values()) {
+            Float8Vector vector = (Float8Vector) root.getVector(nutrient.getParamName());
+            values.add(String.valueOf(vector.get(row)));
+        }
+        return values;
+    }
+}
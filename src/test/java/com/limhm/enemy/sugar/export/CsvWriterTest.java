@@ -0,0 +1,79 @@
+package com.limhm.enemy.sugar.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CsvWriterTest {
+
+    @Test
+    void integralNumbersHaveNoFraction() throws IOException {
+        assertThat(write(120.0, 0.0, -0.0, -7.0, 1234567890123.0))
+            .isEqualTo("120,0,0,-7,1234567890123\r\n");
+    }
+
+    @Test
+    void fractionsUseTheShortestExactDigits() throws IOException {
+        assertThat(write(3.5, 0.25, -1.25, -0.05, 0.0001, 12.345678901))
+            .isEqualTo("3.5,0.25,-1.25,-0.05,0.0001,12.345678901\r\n");
+    }
+
+    @Test
+    void valuesWithoutShortDigitsFallBackToDoubleToString() throws IOException {
+        assertThat(write(0.1 + 0.2, 1e20, Double.NaN, Double.POSITIVE_INFINITY))
+            .isEqualTo("0.30000000000000004,1.0E20,NaN,Infinity\r\n");
+    }
+
+    @Test
+    void writtenNumbersParseBackToTheSameValue() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextInt(2_000_000) / Math.pow(10, random.nextInt(7))
+                - 1000;
+            String written = write(value).trim();
+            assertThat(Double.parseDouble(written)).as(written).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void fieldsWithDelimitersAreQuoted() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(output);
+        writer.field("카페,A");
+        writer.field("라떼 \"big\"");
+        writer.field("줄\n바꿈");
+        writer.field("아메리카노");
+        writer.endRow();
+        writer.flush();
+
+        assertThat(output.toString(StandardCharsets.UTF_8))
+            .isEqualTo("\"카페,A\",\"라떼 \"\"big\"\"\",\"줄\n바꿈\",아메리카노\r\n");
+    }
+
+    @Test
+    void longOutputSpansManyBuffers() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(output);
+        String name = "가😀".repeat(3000);
+        writer.field(name);
+        writer.endRow();
+        writer.flush();
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(name + "\r\n");
+    }
+
+    private static String write(double... values) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(output);
+        for (double value : values) {
+            writer.field(value);
+        }
+        writer.endRow();
+        writer.flush();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
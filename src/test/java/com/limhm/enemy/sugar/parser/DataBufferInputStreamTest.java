@@ -0,0 +1,71 @@
+package com.limhm.enemy.sugar.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class DataBufferInputStreamTest {
+
+    private final NettyDataBufferFactory bufferFactory =
+        new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    @Test
+    void readsBuffersInOrderUntilTheEnd() throws Exception {
+        DataBufferInputStream inputStream = new DataBufferInputStream(
+            Flux.just(buffer("ab"), buffer("c")), 1);
+
+        assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8))
+            .isEqualTo("abc");
+        assertThat(inputStream.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void closeWakesAReaderBlockedOnAnEmptyQueue() throws Exception {
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        DataBufferInputStream inputStream = new DataBufferInputStream(body.asFlux(), 2);
+        CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return inputStream.read();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        // 읽는 스레드가 take()에서 기다릴 때까지
+        Thread.sleep(Duration.ofMillis(100).toMillis());
+
+        inputStream.close();
+
+        assertThat(read.get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+        assertThat(inputStream.read()).isEqualTo(-1);
+        assertThat(body.currentSubscriberCount()).isZero();
+    }
+
+    @Test
+    void closeReleasesQueuedAndLateBuffers() {
+        Sinks.Many<DataBuffer> body = Sinks.many().multicast().directBestEffort();
+        DataBufferInputStream inputStream = new DataBufferInputStream(body.asFlux(), 4);
+        NettyDataBuffer queued = buffer("queued");
+        body.tryEmitNext(queued);
+
+        inputStream.close();
+        NettyDataBuffer late = buffer("late");
+        inputStream.onNext(late);
+
+        assertThat(queued.getNativeBuffer().refCnt()).isZero();
+        assertThat(late.getNativeBuffer().refCnt()).isZero();
+    }
+
+    private NettyDataBuffer buffer(String value) {
+        return (NettyDataBuffer) bufferFactory.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
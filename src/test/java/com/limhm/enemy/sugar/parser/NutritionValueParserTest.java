@@ -0,0 +1,51 @@
+package com.limhm.enemy.sugar.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NutritionValueParserTest {
+
+    @Test
+    void javadocExamples() {
+        assertThat(NutritionValueParser.parse("포화지방 11.1g")).isEqualTo(11.1);
+        assertThat(NutritionValueParser.parse("2shot : 156mg/45ml")).isEqualTo(156);
+        assertThat(NutritionValueParser.parse("1,200")).isEqualTo(1200);
+        assertThat(NutritionValueParser.parse("-")).isZero();
+        assertThat(NutritionValueParser.parse("")).isZero();
+    }
+
+    @Test
+    void parsesOnlyTheGivenRange() {
+        String text = "당류 12g, 단백질 3.5g";
+
+        assertThat(NutritionValueParser.parse(text, text.indexOf("단백질"), text.length()))
+            .isEqualTo(3.5);
+    }
+
+    /**
+     * 유효 숫자가 15자리 이하이면 Double.parseDouble()과 같다.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"0.1", "0.05", "7.77", "123.456", "0.000123", "99999.9999999999",
+        "123456789012345", "1234567.12345678", "0.123456789012345"})
+    void upToFifteenSignificantDigitsMatchParseDouble(String text) {
+        assertThat(NutritionValueParser.parse(text)).isEqualTo(Double.parseDouble(text));
+    }
+
+    /**
+     * 정수부와 소수부를 합쳐 15자리가 넘어도 long이 넘치지 않고, 버린 자릿수만큼만 오차가 생긴다.
+     */
+    @ParameterizedTest
+    @CsvSource({"12345.12345678901234", "1234567890.1234567890", "12345678901234567890",
+        "98765432109876543210.5"})
+    void longerNumbersStayCloseToParseDouble(String text) {
+        double expected = Double.parseDouble(text);
+
+        assertThat(NutritionValueParser.parse(text)).isCloseTo(expected, within(expected * 1e-14));
+    }
+}
@@ -0,0 +1,92 @@
+package com.limhm.enemy.sugar.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.LinkedMultiValueMap;
+
+class MenuCursorTest {
+
+    private final Cafe mega = new Cafe("메가커피");
+    private final Cafe starbucks = new Cafe("스타벅스");
+
+    @Test
+    void decodedCursorPointsAtTheEncodedBeverage() {
+        Beverage beverage = drink(starbucks, "줄바꿈\n들어간 이름", 12.5);
+
+        MenuCursor cursor = MenuCursor.decode(MenuCursor.of(Nutrient.SUGAR, beverage).encode());
+
+        assertThat(cursor.compareTo(12.5, "스타벅스", "줄바꿈\n들어간 이름")).isZero();
+        assertThat(cursor.compareTo(12.5, "스타벅스", "콜드브루")).isNegative();
+        assertThat(cursor.compareTo(12.0, "스타벅스", "콜드브루")).isPositive();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"asc", "desc"})
+    void pagesResumeAfterTheLastRowUntilTheEnd(String order) {
+        MenuIndex index = new MenuIndex(List.of(drink(mega, "라떼", 10), drink(starbucks, "라떼", 10),
+            drink(mega, "모카", 20), drink(starbucks, "모카", 5), drink(mega, "아메리카노", 0)));
+        List<String> all = names(index.query(query(order, 5, null)).getItems());
+
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MenuPage page = index.query(query(order, 2, cursor));
+            paged.addAll(names(page.getItems()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(all).hasSize(5);
+        assertThat(paged).isEqualTo(all);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void cursorFromAnOlderSnapshotNeitherSkipsNorRepeats() {
+        MenuIndex before = new MenuIndex(List.of(drink(mega, "아메리카노", 0),
+            drink(mega, "라떼", 10), drink(mega, "모카", 20), drink(mega, "초코", 30)));
+        MenuPage first = before.query(query("asc", 2, null));
+
+        // 커서가 가리키는 라떼가 사라지고, 커서 앞뒤에 메뉴가 추가된 새 스냅샷
+        MenuIndex after = new MenuIndex(List.of(drink(mega, "아메리카노", 0),
+            drink(mega, "티", 5), drink(mega, "바닐라라떼", 15), drink(mega, "모카", 20),
+            drink(mega, "초코", 30)));
+        MenuPage second = after.query(query("asc", 10, first.getNextCursor()));
+
+        assertThat(names(first.getItems())).containsExactly("메가커피 아메리카노", "메가커피 라떼");
+        assertThat(names(second.getItems()))
+            .containsExactly("메가커피 바닐라라떼", "메가커피 모카", "메가커피 초코");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private static MenuQuery query(String order, int limit, String cursor) {
+        LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("sort", "sugar");
+        params.add("order", order);
+        params.add("limit", String.valueOf(limit));
+        if (cursor != null) {
+            params.add("cursor", cursor);
+        }
+        return MenuQuery.from(params);
+    }
+
+    private static List<String> names(List<Beverage> beverages) {
+        return beverages.stream()
+            .map(beverage -> beverage.getCompany().getKorName() + " " + beverage.getName())
+            .toList();
+    }
+
+    private static Beverage drink(Cafe cafe, String name, double sugar) {
+        return new CafeDrink(cafe, name, 100, sugar, 1, 1, 1, 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.limhm.enemy.sugar.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.limhm.enemy.sugar.domain.Beverage;
+import com.limhm.enemy.sugar.domain.Cafe;
+import com.limhm.enemy.sugar.domain.CafeDrink;
+import com.limhm.enemy.sugar.domain.Nutrient;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.util.LinkedMultiValueMap;
+
+class MenuIndexTest {
+
+    private static final List<Cafe> CAFES = List.of(new Cafe("스타벅스"), new Cafe("메가커피"),
+        new Cafe("이디야"));
+
+    /**
+     * 값이 같은 메뉴가 많도록 작은 범위의 정수로 만든다. 같은 값은 카페, 이름 순으로 정렬되어야 한다.
+     */
+    private final List<Beverage> menu = menu(new Random(42), 300);
+    private final MenuIndex index = new MenuIndex(menu);
+
+    @ParameterizedTest
+    @EnumSource(Nutrient.class)
+    void ascendingOrderMatchesComparatorSort(Nutrient sort) {
+        List<Beverage> expected = menu.stream().sorted(comparator(sort)).toList();
+
+        assertThat(index.query(query(sort, "asc", null)).getItems()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Nutrient.class)
+    void descendingOrderMatchesReversedComparatorSort(Nutrient sort) {
+        List<Beverage> expected = menu.stream().sorted(comparator(sort).reversed()).toList();
+
+        assertThat(index.query(query(sort, "desc", null)).getItems()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Nutrient.class)
+    void filtersKeepTheSortedOrder(Nutrient sort) {
+        List<Beverage> expected = menu.stream()
+            .filter(beverage -> beverage.getCompany().getKorName().equals("이디야"))
+            .filter(beverage -> beverage.getSugar() <= 5)
+            .sorted(comparator(sort))
+            .toList();
+
+        assertThat(index.query(query(sort, "asc", "이디야")).getItems()).isEqualTo(expected);
+    }
+
+    private static Comparator<Beverage> comparator(Nutrient sort) {
+        return Comparator.comparingDouble(sort::getValue)
+            .thenComparing(beverage -> beverage.getCompany().getKorName())
+            .thenComparing(Beverage::getName);
+    }
+
+    private static MenuQuery query(Nutrient sort, String order, String cafe) {
+        LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("sort", sort.getParamName());
+        params.add("order", order);
+        params.add("limit", String.valueOf(MenuQuery.MAX_LIMIT));
+        if (cafe != null) {
+            params.add("cafe", cafe);
+            params.add("maxSugar", "5");
+        }
+        return MenuQuery.from(params);
+    }
+
+    private static List<Beverage> menu(Random random, int size) {
+        List<Beverage> menu = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            menu.add(new CafeDrink(CAFES.get(random.nextInt(CAFES.size())), "음료 " + i,
+                random.nextInt(10), random.nextInt(10), random.nextInt(10), random.nextInt(10),
+                random.nextInt(10), random.nextInt(10)));
+        }
+        return menu;
+    }
+}
@@ -0,0 +1,38 @@
+package com.limhm.enemy.sugar.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.LinkedMultiValueMap;
+
+class MenuQueryTest {
+
+    @Test
+    void limitDefaultsAndParsesIntegers() {
+        assertThat(MenuQuery.from(new LinkedMultiValueMap<>()).getLimit())
+            .isEqualTo(MenuQuery.DEFAULT_LIMIT);
+        assertThat(query("limit", "20").getLimit()).isEqualTo(20);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2.5", "1e2", "abc", "0", "501", "2147483648"})
+    void invalidLimitIsRejected(String limit) {
+        assertThatThrownBy(() -> query("limit", limit))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> query("cursor", "bm90LWEtY3Vyc29y"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MenuQuery query(String name, String value) {
+        LinkedMultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add(name, value);
+        return MenuQuery.from(params);
+    }
+}